@@ -7,49 +7,67 @@
 package org.hibernate.ogm.datastore.orientdb;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.hibernate.StaleObjectStateException;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.datastore.orientdb.OrientDBProperties.WriteModeEnum;
 import org.hibernate.ogm.datastore.orientdb.constant.OrientDBConstant;
 import org.hibernate.ogm.datastore.orientdb.dialect.impl.OrientDBAssociationQueries;
 import org.hibernate.ogm.datastore.orientdb.dialect.impl.OrientDBAssociationSnapshot;
 import org.hibernate.ogm.datastore.orientdb.dialect.impl.OrientDBEntityQueries;
 import org.hibernate.ogm.datastore.orientdb.dialect.impl.OrientDBTupleAssociationSnapshot;
+import org.hibernate.ogm.datastore.orientdb.dialect.impl.OResultSetTupleIterator;
 import org.hibernate.ogm.datastore.orientdb.dialect.impl.OrientDBTupleSnapshot;
-import org.hibernate.ogm.datastore.orientdb.dialect.impl.ODocumentListTupleIterator;
 import org.hibernate.ogm.datastore.orientdb.dto.GenerationResult;
 import org.hibernate.ogm.datastore.orientdb.impl.OrientDBDatastoreProvider;
 import org.hibernate.ogm.datastore.orientdb.schema.OrientDBDocumentSchemaDefiner;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBMetrics;
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBOperation;
 import org.hibernate.ogm.datastore.orientdb.query.impl.OrientDBParameterMetadataBuilder;
 import org.hibernate.ogm.datastore.orientdb.type.spi.ORecordIdGridType;
 import org.hibernate.ogm.datastore.orientdb.type.spi.ORidBagGridType;
+import org.hibernate.ogm.datastore.orientdb.utils.DocumentUtil;
 import org.hibernate.ogm.datastore.orientdb.utils.EntityKeyUtil;
 import org.hibernate.ogm.datastore.orientdb.utils.InsertQueryGenerator;
 import org.hibernate.ogm.datastore.orientdb.utils.QueryTypeDefiner;
 import org.hibernate.ogm.datastore.orientdb.utils.QueryTypeDefiner.QueryType;
-import org.hibernate.ogm.datastore.orientdb.utils.SequenceUtil;
+import org.hibernate.ogm.datastore.orientdb.utils.RowSelectionUtil;
 import org.hibernate.ogm.datastore.orientdb.utils.UpdateQueryGenerator;
+import org.hibernate.ogm.dialect.batch.spi.BatchableGridDialect;
+import org.hibernate.ogm.dialect.batch.spi.GroupedChangesToEntityOperation;
+import org.hibernate.ogm.dialect.batch.spi.GroupingByEntityDialect;
+import org.hibernate.ogm.dialect.batch.spi.InsertOrUpdateAssociationOperation;
+import org.hibernate.ogm.dialect.batch.spi.InsertOrUpdateTupleOperation;
+import org.hibernate.ogm.dialect.batch.spi.Operation;
+import org.hibernate.ogm.dialect.batch.spi.OperationsQueue;
+import org.hibernate.ogm.dialect.batch.spi.RemoveAssociationOperation;
+import org.hibernate.ogm.dialect.batch.spi.RemoveTupleOperation;
 import org.hibernate.ogm.dialect.identity.spi.IdentityColumnAwareGridDialect;
 import org.hibernate.ogm.dialect.query.spi.BackendQuery;
 import org.hibernate.ogm.dialect.query.spi.ClosableIterator;
 import org.hibernate.ogm.dialect.query.spi.ParameterMetadataBuilder;
 import org.hibernate.ogm.dialect.query.spi.QueryParameters;
 import org.hibernate.ogm.dialect.query.spi.QueryableGridDialect;
+import org.hibernate.ogm.dialect.query.spi.RowSelection;
 import org.hibernate.ogm.dialect.query.spi.TypedGridValue;
 import org.hibernate.ogm.dialect.spi.AssociationContext;
 import org.hibernate.ogm.dialect.spi.AssociationTypeContext;
 import org.hibernate.ogm.dialect.spi.BaseGridDialect;
 import org.hibernate.ogm.dialect.spi.DuplicateInsertPreventionStrategy;
+import org.hibernate.ogm.dialect.multiget.spi.MultigetGridDialect;
 import org.hibernate.ogm.dialect.spi.ModelConsumer;
 import org.hibernate.ogm.dialect.spi.NextValueRequest;
 import org.hibernate.ogm.dialect.spi.OperationContext;
@@ -80,7 +98,9 @@ import org.hibernate.type.Type;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.db.record.ridbag.ORidBag;
 import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
 import org.hibernate.ogm.datastore.orientdb.utils.NativeQueryUtil;
 import org.hibernate.ogm.model.spi.EntityMetadataInformation;
 
@@ -98,18 +118,27 @@ import org.hibernate.ogm.model.spi.EntityMetadataInformation;
  * @see QueryableGridDialect
  * @see SessionFactoryLifecycleAwareDialect
  * @see IdentityColumnAwareGridDialect
+ * @see MultigetGridDialect
+ * @see BatchableGridDialect
+ * @see GroupingByEntityDialect
  * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
  */
 @SuppressWarnings("serial")
 public class OrientDBDialect extends BaseGridDialect
-		implements QueryableGridDialect<String>, SessionFactoryLifecycleAwareDialect, IdentityColumnAwareGridDialect {
+		implements QueryableGridDialect<String>, SessionFactoryLifecycleAwareDialect, IdentityColumnAwareGridDialect, MultigetGridDialect,
+		BatchableGridDialect, GroupingByEntityDialect {
 
 	private static final Log log = LoggerFactory.getLogger();
 	private static final Association ASSOCIATION_NOT_FOUND = null;
+	/**
+	 * field of result of {@code UPDATE} command with number of updated documents
+	 */
+	private static final String UPDATED_COUNT_FIELD = "count";
 	private static final InsertQueryGenerator INSERT_QUERY_GENERATOR = new InsertQueryGenerator();
 	private static final UpdateQueryGenerator UPDATE_QUERY_GENERATOR = new UpdateQueryGenerator();
 
 	private final OrientDBDatastoreProvider provider;
+	private final OrientDBParameterMetadataBuilder parameterMetadataBuilder = new OrientDBParameterMetadataBuilder();
 	private Map<AssociationKeyMetadata, OrientDBAssociationQueries> associationQueries;
 	private Map<EntityKeyMetadata, OrientDBEntityQueries> entityQueries;
 
@@ -128,13 +157,44 @@ public class OrientDBDialect extends BaseGridDialect
 	public Tuple getTuple(EntityKey key, OperationContext operationContext) {
 		TupleTypeContext tupleContext = operationContext.getTupleTypeContext();
 		log.debugf( "getTuple:EntityKey: %s ; tupleContext: %s", key, tupleContext );
-		ODocument document = entityQueries.get( key.getMetadata() ).findEntity( provider.getCurrentDatabase(), key );
+		OrientDBMetrics metrics = provider.getMetrics();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+		ODocument document = entityQueries.get( key.getMetadata() ).findEntity( getDatabase( operationContext ), key );
+		if ( metrics.isEnabled() ) {
+			metrics.record( OrientDBOperation.GET_TUPLE, key.getTable(), System.nanoTime() - start, document != null ? 1 : 0,
+					document != null ? document.getSize() : 0 );
+		}
 		if ( document == null ) {
 			return null;
 		}
 		return new Tuple( new OrientDBTupleSnapshot( document ), SnapshotType.UPDATE );
 	}
 
+	@Override
+	public List<Tuple> getTuples(EntityKey[] keys, TupleContext tupleContext) {
+		log.debugf( "getTuples:EntityKeys: %d ; tupleContext: %s", keys.length, tupleContext );
+		if ( keys.length == 0 ) {
+			return Collections.emptyList();
+		}
+		OrientDBMetrics metrics = provider.getMetrics();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+		List<ODocument> documents = entityQueries.get( keys[0].getMetadata() ).findEntities( getDatabase( tupleContext ), keys );
+		List<Tuple> tuples = new ArrayList<>( documents.size() );
+		long rows = 0;
+		long bytes = 0;
+		for ( ODocument document : documents ) {
+			tuples.add( document == null ? null : new Tuple( new OrientDBTupleSnapshot( document ), SnapshotType.UPDATE ) );
+			if ( document != null ) {
+				rows++;
+				bytes += document.getSize();
+			}
+		}
+		if ( metrics.isEnabled() ) {
+			metrics.record( OrientDBOperation.GET_TUPLES, keys[0].getTable(), System.nanoTime() - start, rows, bytes );
+		}
+		return tuples;
+	}
+
 	@Override
 	public Tuple createTuple(EntityKey key, OperationContext operationContext) {
 		TupleTypeContext tupleContext = operationContext.getTupleTypeContext();
@@ -149,9 +209,38 @@ public class OrientDBDialect extends BaseGridDialect
 		return new Tuple( new OrientDBTupleSnapshot( entityKeyMetadata.getTable() ), SnapshotType.INSERT );
 	}
 
+	/**
+	 * Scan all documents of the class. Clusters of the class are scanned one by one in the calling thread by the
+	 * connection of the transaction, documents are streamed from the cursor to the consumer.
+	 *
+	 * @param consumer consumer of tuples
+	 * @param tupleTypeContext context
+	 * @param entityKeyMetadata metadata of the entity
+	 */
 	@Override
 	public void forEachTuple(ModelConsumer consumer, TupleTypeContext tupleTypeContext, EntityKeyMetadata entityKeyMetadata) {
-		throw new UnsupportedOperationException( "Not supported yet." );
+		// the call has no transaction context, so the schema is read by own connection
+		List<String> clusterNames = new ArrayList<>();
+		try ( ODatabaseDocument db = provider.openIsolatedDatabase() ) {
+			OClass oClass = db.getMetadata().getSchema().getClass( entityKeyMetadata.getTable() );
+			if ( oClass == null ) {
+				log.debugf( "forEachTuple: class %s not exists", entityKeyMetadata.getTable() );
+				return;
+			}
+			for ( int clusterId : oClass.getPolymorphicClusterIds() ) {
+				clusterNames.add( db.getClusterNameById( clusterId ) );
+			}
+		}
+		log.debugf( "forEachTuple: class: %s; clusters: %s", entityKeyMetadata.getTable(), clusterNames );
+		// consumers are not required to be thread-safe
+		for ( String clusterName : clusterNames ) {
+			consumer.consume( transactionContext -> scanCluster( provider.getDatabase( transactionContext ), clusterName ) );
+		}
+	}
+
+	private ClosableIterator<Tuple> scanCluster(ODatabaseDocument db, String clusterName) {
+		log.debugf( "scanCluster: cluster: %s; current thread: %s", clusterName, Thread.currentThread().getName() );
+		return new OResultSetTupleIterator( db.query( "SELECT FROM cluster:" + clusterName ) );
 	}
 
 	@Override
@@ -159,47 +248,117 @@ public class OrientDBDialect extends BaseGridDialect
 		Tuple tuple = tuplePointer.getTuple();
 		log.debugf( "insertOrUpdateTuple:EntityKey: %s ; tupleContext: %s ; tuple: %s ; SnapshotType: %s",
 				key, tupleContext, tuple, tuple.getSnapshotType() );
-		ODatabaseDocument db = provider.getCurrentDatabase();
+		OrientDBMetrics metrics = provider.getMetrics();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+		ODatabaseDocument db = getDatabaseForWrite( tupleContext );
 
 		OrientDBTupleSnapshot snapshot = (OrientDBTupleSnapshot) tuple.getSnapshot();
-		boolean existsInDbOrCache = EntityKeyUtil.existsPrimaryKeyInDbOrCache( db, key );
-		QueryType queryType = QueryTypeDefiner.define( existsInDbOrCache, snapshot.isNew() );
-		log.debugf( "insertOrUpdateTuple: snapshot.isNew(): %b ,snapshot.isEmpty(): %b; exists in Db or Cache: %b; query type: %s ",
-				snapshot.isNew(), snapshot.isEmpty(), existsInDbOrCache, queryType );
-		log.debugf( "insertOrUpdateTuple: count: %b;", EntityKeyUtil.existsPrimaryKeyInDB( db, key ) );
+		QueryType queryType = QueryTypeDefiner.define( tuple.getSnapshotType(), snapshot.getDocument().getIdentity().isPersistent(),
+				() -> EntityKeyUtil.existsPrimaryKeyInDB( db, key ) );
+		log.debugf( "insertOrUpdateTuple: snapshot.isNew(): %b ,snapshot.isEmpty(): %b; query type: %s ",
+				snapshot.isNew(), snapshot.isEmpty(), queryType );
+
+		try {
+			writeTuple( db, key, tuplePointer, snapshot, queryType );
+		}
+		catch (ORecordDuplicatedException e) {
+			if ( EntityKeyUtil.isPrimaryKeyIndex( db, key, e.getIndexName() ) ) {
+				throw new TupleAlreadyExistsException( key, e );
+			}
+			throw e;
+		}
+		if ( metrics.isEnabled() ) {
+			ODocument document = ( (OrientDBTupleSnapshot) tuplePointer.getTuple().getSnapshot() ).getDocument();
+			metrics.record( OrientDBOperation.INSERT_OR_UPDATE_TUPLE, key.getTable(), System.nanoTime() - start, 1,
+					document != null ? document.getSize() : 0 );
+		}
+	}
+
+	private void writeTuple(ODatabaseDocument db, EntityKey key, TuplePointer tuplePointer, OrientDBTupleSnapshot snapshot, QueryType queryType) {
+		Tuple tuple = tuplePointer.getTuple();
+		if ( WriteModeEnum.DOCUMENT.equals( provider.getWriteMode() ) ) {
+			ODocument document = saveDocument( db, key, tuple, snapshot, queryType );
+			tuplePointer.setTuple( new Tuple( new OrientDBTupleSnapshot( document ), SnapshotType.UPDATE ) );
+			return;
+		}
+
+		GenerationResult query = generateWriteTupleQuery( key, tuple, queryType );
+		ODocument result = NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), db, query );
+		log.debugf( "insertOrUpdateTuple:Key: %s; Query: %s; Affected rows: %s ", key, query.getExecutionQuery(), result );
+		if ( QueryType.INSERT.equals( queryType ) ) {
+			// the inserted document is the result of the command. Next writes of the tuple are updates.
+			tuplePointer.setTuple( new Tuple( new OrientDBTupleSnapshot( result ), SnapshotType.UPDATE ) );
+		}
+		else {
+			Number count = result != null ? result.field( UPDATED_COUNT_FIELD ) : null;
+			if ( count != null && count.longValue() == 0 ) {
+				// the entity is removed by other transaction
+				throw staleTuple( key );
+			}
+		}
+	}
 
+	private static StaleObjectStateException staleTuple(EntityKey key) {
+		return new StaleObjectStateException( key.getTable(), (Serializable) EntityKeyUtil.generatePrimaryKeyPredicate( key ) );
+	}
 
-		StringBuilder queryBuffer = new StringBuilder( 100 );
+	private GenerationResult generateWriteTupleQuery(EntityKey key, Tuple tuple, QueryType queryType) {
+		GenerationResult query = null;
 		switch ( queryType ) {
 			case INSERT:
 				log.debugf( "insertOrUpdateTuple:Key: %s is new! Insert new record!", key );
-				GenerationResult insertResult = INSERT_QUERY_GENERATOR.generate( key.getTable(), tuple, true,
+				query = INSERT_QUERY_GENERATOR.generate( key.getTable(), tuple, true,
 						new HashSet<>( Arrays.asList( key.getColumnNames() ) ) );
-				queryBuffer.append( insertResult.getExecutionQuery() );
 				break;
 			case UPDATE:
-				GenerationResult updateResult = UPDATE_QUERY_GENERATOR.generate( key.getTable(), tuple, key );
-				queryBuffer.append( updateResult.getExecutionQuery() );
+				query = UPDATE_QUERY_GENERATOR.generate( key.getTable(), tuple, key );
 				break;
-			case ERROR:
-				throw new StaleObjectStateException( key.getTable(), (Serializable) EntityKeyUtil.generatePrimaryKeyPredicate( key ) );
 		}
+		return query;
+	}
 
-		ODocument result = NativeQueryUtil.executeNonIdempotentQuery( db, queryBuffer );
-		log.debugf( "insertOrUpdateTuple:Key: %s; Query: %s; Affected rows: %s ", key, queryBuffer, result.toJSON() );
-
+	/**
+	 * Write the tuple by Document API. Fields of the document of the snapshot are changed by the operations of the
+	 * tuple and the document is saved without SQL.
+	 *
+	 * @param db current instance of db
+	 * @param key entity key
+	 * @param tuple tuple
+	 * @param snapshot snapshot of the tuple
+	 * @param queryType type of write operation
+	 * @return saved document
+	 */
+	private ODocument saveDocument(ODatabaseDocument db, EntityKey key, Tuple tuple, OrientDBTupleSnapshot snapshot, QueryType queryType) {
+		ODocument document = snapshot.getDocument();
+		if ( QueryType.UPDATE.equals( queryType ) && !document.getIdentity().isPersistent() ) {
+			// the tuple was created, but the entity is stored already
+			ODocument storedDocument = entityQueries.get( key.getMetadata() ).findEntity( db, key );
+			if ( storedDocument == null ) {
+				// the entity is removed by other transaction
+				throw staleTuple( key );
+			}
+			document = storedDocument;
+		}
+		if ( document.getClassName() == null ) {
+			document.setClassName( key.getTable() );
+		}
+		DocumentUtil.applyOperations( document, tuple, new HashSet<>( Arrays.asList( key.getColumnNames() ) ) );
+		db.save( document );
+		log.debugf( "saveDocument:Key: %s; query type: %s; document: %s ", key, queryType, document.getIdentity() );
+		return document;
 	}
 
 	@Override
 	public void insertTuple(EntityKeyMetadata entityKeyMetadata, Tuple tuple, TupleContext tupleContext) {
 		log.debugf( "insertTuple:EntityKeyMetadata: %s ; tupleContext: %s ; tuple: %s ",
 				entityKeyMetadata, tupleContext, tuple );
+		OrientDBMetrics metrics = provider.getMetrics();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+		ODatabaseDocument db = getDatabaseForWrite( tupleContext );
 
 		String dbKeyName = entityKeyMetadata.getColumnNames()[0];
 		Long dbKeyValue = null;
 
-		String query = null;
-
 		if ( dbKeyName.equals( OrientDBConstant.SYSTEM_RID ) ) {
 			// use @RID for key
 			throw new UnsupportedOperationException( "Can not use @RID as primary key!" );
@@ -207,48 +366,83 @@ public class OrientDBDialect extends BaseGridDialect
 		else {
 			// use business key. get new id from sequence
 			String seqName = OrientDBDocumentSchemaDefiner.generateSeqName( entityKeyMetadata.getTable(), dbKeyName );
-			dbKeyValue = SequenceUtil.getNextSequenceValue( provider.getCurrentDatabase(), seqName );
+			dbKeyValue = provider.getSequenceAllocators().getNextSequenceValue( seqName );
 			tuple.put( dbKeyName, dbKeyValue );
 		}
+		if ( WriteModeEnum.DOCUMENT.equals( provider.getWriteMode() ) ) {
+			ODocument document = new ODocument( entityKeyMetadata.getTable() );
+			DocumentUtil.applyOperations( document, tuple, new HashSet<>( Arrays.asList( entityKeyMetadata.getColumnNames() ) ) );
+			db.save( document );
+			log.debugf( "insertTuple: inserted document: %s ", document.getIdentity() );
+			if ( metrics.isEnabled() ) {
+				metrics.record( OrientDBOperation.INSERT_TUPLE, entityKeyMetadata.getTable(), System.nanoTime() - start, 1,
+						document.getSize() );
+			}
+			return;
+		}
 		GenerationResult result = INSERT_QUERY_GENERATOR.generate( entityKeyMetadata.getTable(), tuple, true,
 				new HashSet<>( Arrays.asList( entityKeyMetadata.getColumnNames() ) ) );
-		query = result.getExecutionQuery();
 
 		log.debugf( "insertTuple: insertQuery: %s ", result.getExecutionQuery() );
-		ODocument insertedRow = NativeQueryUtil.executeNonIdempotentQuery( provider.getCurrentDatabase(), result.getExecutionQuery() );
+		ODocument insertedRow = NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), db, result );
 
-		log.debugf( "insertTuple: Query: %s; inserted rows: %s ", query, insertedRow.toJSON() );
+		log.debugf( "insertTuple: Query: %s; inserted rows: %s ", result.getExecutionQuery(), insertedRow );
+		if ( metrics.isEnabled() ) {
+			metrics.record( OrientDBOperation.INSERT_TUPLE, entityKeyMetadata.getTable(), System.nanoTime() - start, 1,
+					insertedRow != null ? insertedRow.getSize() : 0 );
+		}
 	}
 
 	@Override
 	public void removeTuple(EntityKey key, TupleContext tupleContext) {
 		log.debugf( "removeTuple:EntityKey: %s ; tupleContext %s ; current thread: %s",
 				key, tupleContext, Thread.currentThread().getName() );
-		ODatabaseDocument db = provider.getCurrentDatabase();
-		StringBuilder queryBuffer = new StringBuilder( 100 );
-		queryBuffer.append( "DELETE FROM " ).append( key.getTable() ).append( " WHERE " ).append( EntityKeyUtil.generatePrimaryKeyPredicate( key ) );
-		log.debugf( "removeTuple:Key: %s. query: %s ", key, queryBuffer );
-		ODocument removeDocs = NativeQueryUtil.executeNonIdempotentQuery( db, queryBuffer );
-		log.debugf( "removeTuple: removed entities: %s ", removeDocs.toJSON() );
+		OrientDBMetrics metrics = provider.getMetrics();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+		ODatabaseDocument db = getDatabaseForWrite( tupleContext );
+		if ( WriteModeEnum.DOCUMENT.equals( provider.getWriteMode() ) ) {
+			ODocument document = entityQueries.get( key.getMetadata() ).findEntity( db, key );
+			if ( document != null ) {
+				db.delete( document.getIdentity() );
+			}
+			log.debugf( "removeTuple: removed entity: %s ", document != null ? document.getIdentity() : null );
+			if ( metrics.isEnabled() ) {
+				metrics.record( OrientDBOperation.REMOVE_TUPLE, key.getTable(), System.nanoTime() - start, document != null ? 1 : 0, 0 );
+			}
+			return;
+		}
+		ODocument removeDocs = entityQueries.get( key.getMetadata() ).removeEntity( db, key );
+		log.debugf( "removeTuple: removed entities: %s ", removeDocs );
+		if ( metrics.isEnabled() ) {
+			metrics.record( OrientDBOperation.REMOVE_TUPLE, key.getTable(), System.nanoTime() - start, 1, 0 );
+		}
 	}
 
 	@Override
 	public Association getAssociation(AssociationKey associationKey, AssociationContext associationContext) {
 		log.debugf( "getAssociation:AssociationKey: %s ; AssociationContext: %s", associationKey, associationContext );
 		EntityKey entityKey = associationKey.getEntityKey();
-		ODatabaseDocument db = provider.getCurrentDatabase();
-		boolean existsPrimaryKey = EntityKeyUtil.existsPrimaryKeyInDbOrCache( db, entityKey );
+		OrientDBMetrics metrics = provider.getMetrics();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+		ODatabaseDocument db = getDatabase( associationContext );
+		boolean existsPrimaryKey = EntityKeyUtil.existsPrimaryKeyInDB( db, entityKey );
 		if ( !existsPrimaryKey ) {
+			if ( metrics.isEnabled() ) {
+				metrics.record( OrientDBOperation.GET_ASSOCIATION, associationKey.getTable(), System.nanoTime() - start, 0, 0 );
+			}
 			return ASSOCIATION_NOT_FOUND;
 		}
 		Map<RowKey, Tuple> tuples = createAssociationMap( associationKey, associationContext );
 		log.debugf( "getAssociation:tuples keys: %s ; ", tuples.keySet() );
+		if ( metrics.isEnabled() ) {
+			metrics.record( OrientDBOperation.GET_ASSOCIATION, associationKey.getTable(), System.nanoTime() - start, tuples.size(), 0 );
+		}
 		return new Association( new OrientDBAssociationSnapshot( tuples ) );
 	}
 
 	private Map<RowKey, Tuple> createAssociationMap(AssociationKey associationKey, AssociationContext associationContext) {
 		log.debugf( "createAssociationMap:AssociationKey: %s ; AssociationContext: %s", associationKey, associationContext );
-		ODatabaseDocument db = provider.getCurrentDatabase();
+		ODatabaseDocument db = getDatabase( associationContext );
 		List<ODocument> relationships = entityQueries.get( associationKey.getEntityKey().getMetadata() )
 				.findAssociation( db, associationKey, associationContext );
 
@@ -283,15 +477,22 @@ public class OrientDBDialect extends BaseGridDialect
 				association );
 		log.debugf( "insertOrUpdateAssociation: EntityKey: %s ;", associationKey.getEntityKey() );
 		log.debugf( "insertOrUpdateAssociation: operations: %s ;", association.getOperations() );
+		OrientDBMetrics metrics = provider.getMetrics();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+		ODatabaseDocument db = getDatabaseForWrite( associationContext );
 
 		for ( AssociationOperation action : association.getOperations() ) {
-			applyAssociationOperation( association, associationKey, action, associationContext );
+			applyAssociationOperation( db, association, associationKey, action, associationContext );
+		}
+		if ( metrics.isEnabled() ) {
+			metrics.record( OrientDBOperation.INSERT_OR_UPDATE_ASSOCIATION, associationKey.getTable(), System.nanoTime() - start,
+					association.getOperations().size(), 0 );
 		}
 
 	}
 
-	private void applyAssociationOperation(Association association, AssociationKey associationKey, AssociationOperation operation,
-			AssociationContext associationContext) {
+	private void applyAssociationOperation(ODatabaseDocument db, Association association, AssociationKey associationKey,
+			AssociationOperation operation, AssociationContext associationContext) {
 		switch ( operation.getType() ) {
 			case CLEAR:
 				log.debugf( "applyAssociationOperation: CLEAR operation for: %s ;", associationKey );
@@ -299,12 +500,12 @@ public class OrientDBDialect extends BaseGridDialect
 				break;
 			case PUT:
 				log.debugf( "applyAssociationOperation: PUT operation for: %s ;", associationKey );
-				putAssociationOperation( association, associationKey, operation,
+				putAssociationOperation( db, association, associationKey, operation,
 						associationContext.getAssociationTypeContext().getAssociatedEntityKeyMetadata() );
 				break;
 			case REMOVE:
 				log.debugf( "applyAssociationOperation: REMOVE operation for: %s ;", associationKey );
-				removeAssociationOperation( association, associationKey, operation,
+				removeAssociationOperation( db, association, associationKey, operation,
 						associationContext.getAssociationTypeContext().getAssociatedEntityKeyMetadata() );
 				break;
 		}
@@ -318,10 +519,15 @@ public class OrientDBDialect extends BaseGridDialect
 			return;
 		}
 
-		associationQueries.get( key.getMetadata() ).removeAssociation( provider.getCurrentDatabase(), key, associationContext );
+		OrientDBMetrics metrics = provider.getMetrics();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+		associationQueries.get( key.getMetadata() ).removeAssociation( getDatabaseForWrite( associationContext ), key, associationContext );
+		if ( metrics.isEnabled() ) {
+			metrics.record( OrientDBOperation.REMOVE_ASSOCIATION, key.getTable(), System.nanoTime() - start, 0, 0 );
+		}
 	}
 
-	private void removeAssociationOperation(Association association, AssociationKey associationKey, AssociationOperation action,
+	private void removeAssociationOperation(ODatabaseDocument db, Association association, AssociationKey associationKey, AssociationOperation action,
 			AssociatedEntityKeyMetadata associatedEntityKeyMetadata) {
 		log.debugf( "removeAssociationOperation: action key: %s ;action value: %s ; metadata: %s; association:%s;associatedEntityKeyMetadata:%s",
 				action.getKey(), action.getValue(), associationKey.getMetadata(), association, associatedEntityKeyMetadata );
@@ -330,24 +536,23 @@ public class OrientDBDialect extends BaseGridDialect
 		if ( associationKey.getMetadata().isInverse() ) {
 			return;
 		}
-		associationQueries.get( associationKey.getMetadata() ).removeAssociationRow( provider.getCurrentDatabase(), associationKey, action.getKey() );
+		associationQueries.get( associationKey.getMetadata() ).removeAssociationRow( db, associationKey, action.getKey() );
 	}
 
-	private void putAssociationOperation(Association association, AssociationKey associationKey, AssociationOperation action,
+	private void putAssociationOperation(ODatabaseDocument db, Association association, AssociationKey associationKey, AssociationOperation action,
 			AssociatedEntityKeyMetadata associatedEntityKeyMetadata) {
 		log.debugf( "putAssociationOperation: : action: %s ; metadata: %s; association:%s", action, associationKey.getMetadata(), association );
-		ODatabaseDocument db = provider.getCurrentDatabase();
 		if ( associationQueries.containsKey( associationKey.getMetadata() ) ) {
 			List<Map<String, Object>> relationship = associationQueries.get( associationKey.getMetadata() ).findRelationship( db,
 					associationKey, action.getKey() );
 			if ( relationship.isEmpty() ) {
 				// create
-				createRelationshipWithNode( associationKey, action.getValue(), associatedEntityKeyMetadata );
+				createRelationshipWithNode( db, associationKey, action.getValue(), associatedEntityKeyMetadata );
 			}
 			else {
 				log.debugf( "putAssociationOperation: :  associationKey: %s ", associationKey );
 				log.debugf( "putAssociationOperation: :  associations for  metadata: %s is %d", associationKey.getMetadata(), relationship.size() );
-				updateRelationshipWithNode( associationKey, action.getValue(), associatedEntityKeyMetadata );
+				updateRelationshipWithNode( db, associationKey, action.getValue(), associatedEntityKeyMetadata );
 			}
 		}
 		else {
@@ -356,31 +561,282 @@ public class OrientDBDialect extends BaseGridDialect
 
 	}
 
-	private void createRelationshipWithNode(AssociationKey associationKey, Tuple associationRow,
+	private void createRelationshipWithNode(ODatabaseDocument db, AssociationKey associationKey, Tuple associationRow,
 			AssociatedEntityKeyMetadata associatedEntityKeyMetadata) {
 		log.debugf( "createRelationshipWithEntityNode: associationKey.getMetadata(): %s ; associationRow: %s ; associatedEntityKeyMetadata: %s",
 				associationKey.getMetadata(), associationRow, associatedEntityKeyMetadata );
 		GenerationResult result = INSERT_QUERY_GENERATOR.generate( associationKey.getTable(), associationRow, false, Collections.<String>emptySet() );
 		log.debugf( "createRelationshipWithNode: query: %s", result.getExecutionQuery() );
-		ODocument insertedRow = NativeQueryUtil.executeNonIdempotentQuery( provider.getCurrentDatabase(), result.getExecutionQuery() );
-		log.debugf( "createRelationshipWithNode: created rows: %s", insertedRow.toJSON() );
+		ODocument insertedRow = NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), db, result );
+		log.debugf( "createRelationshipWithNode: created rows: %s", insertedRow );
 	}
 
-	private void updateRelationshipWithNode(AssociationKey associationKey, Tuple associationRow,
+	private void updateRelationshipWithNode(ODatabaseDocument db, AssociationKey associationKey, Tuple associationRow,
 			AssociatedEntityKeyMetadata associatedEntityKeyMetadata) {
 		log.debugf( "updateRelationshipWithNode: associationKey.getMetadata(): %s ; associationRow: %s ; associatedEntityKeyMetadata: %s",
 				associationKey.getMetadata(), associationRow, associatedEntityKeyMetadata );
 		if ( AssociationKind.EMBEDDED_COLLECTION.equals( associationKey.getMetadata().getAssociationKind() ) ) {
 			GenerationResult result = UPDATE_QUERY_GENERATOR.generate( associationKey, associationRow );
 			log.debugf( "updateRelationshipWithNode: query: %s", result.getExecutionQuery() );
-			ODocument countDoc =  NativeQueryUtil.executeNonIdempotentQuery( provider.getCurrentDatabase(), result.getExecutionQuery() );
-			log.debugf( "updateRelationshipWithNode: execute update query: %d", countDoc.toJSON() );
+			ODocument countDoc =  NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), db, result );
+			log.debugf( "updateRelationshipWithNode: execute update query: %s", countDoc );
 		}
 		else {
 			log.debugf( "updateRelationshipWithNode: update  association  not needs!" );
 		}
 	}
 
+	/**
+	 * Execute the queued operations of the flush.
+	 * <p>
+	 * In SQL write mode, writes are collected into one SQL script that is sent to the datastore by one request.
+	 * Operations with associations read the stored rows, so the collected script is executed before them. In Document
+	 * write mode, the documents are kept by the transaction until commit, so the operations are executed one by one.
+	 * </p>
+	 *
+	 * @param queue queue of operations
+	 */
+	@Override
+	public void executeBatch(OperationsQueue queue) {
+		OrientDBMetrics metrics = provider.getMetrics();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+		int operations = 0;
+		Operation operation = queue.poll();
+		ODatabaseDocument db = getDatabaseForWrite( getOperationContext( operation ) );
+		List<GenerationResult> script = new ArrayList<>();
+		List<EntityKey> insertedKeys = new ArrayList<>();
+		while ( operation != null ) {
+			if ( WriteModeEnum.DOCUMENT.equals( provider.getWriteMode() ) ) {
+				executeOperation( operation );
+			}
+			else {
+				if ( !( operation instanceof InsertOrUpdateTupleOperation || operation instanceof RemoveTupleOperation ) ) {
+					executeScript( db, script, insertedKeys );
+				}
+				addOperationQueries( db, operation, script, insertedKeys );
+			}
+			operations++;
+			operation = queue.poll();
+		}
+		executeScript( db, script, insertedKeys );
+		if ( metrics.isEnabled() ) {
+			metrics.record( OrientDBOperation.EXECUTE_BATCH, null, System.nanoTime() - start, operations, 0 );
+		}
+	}
+
+	/**
+	 * Write all changes of one entity (the tuple and its associations) by one SQL script. Stored rows of the changed
+	 * associations are loaded by one query for each association, so the script does not need a query for each row.
+	 *
+	 * @param groupedOperation operations of the entity
+	 */
+	@Override
+	public void executeGroupedChangesToEntity(GroupedChangesToEntityOperation groupedOperation) {
+		log.debugf( "executeGroupedChangesToEntity: EntityKey: %s", groupedOperation.getEntityKey() );
+		OrientDBMetrics metrics = provider.getMetrics();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+		ODatabaseDocument db = getDatabaseForWrite( getOperationContext( groupedOperation ) );
+		if ( WriteModeEnum.DOCUMENT.equals( provider.getWriteMode() ) ) {
+			executeOperation( groupedOperation );
+		}
+		else {
+			List<GenerationResult> script = new ArrayList<>();
+			List<EntityKey> insertedKeys = new ArrayList<>();
+			addOperationQueries( db, groupedOperation, script, insertedKeys );
+			executeScript( db, script, insertedKeys );
+		}
+		if ( metrics.isEnabled() ) {
+			metrics.record( OrientDBOperation.EXECUTE_BATCH, groupedOperation.getEntityKey().getTable(), System.nanoTime() - start,
+					groupedOperation.getOperations().size(), 0 );
+		}
+	}
+
+	@Override
+	public void flushPendingOperations(EntityKey entityKey, TupleContext tupleContext) {
+		// grouped operations are executed immediately. There are no pending operations.
+	}
+
+	private void addOperationQueries(ODatabaseDocument db, Operation operation, List<GenerationResult> script, List<EntityKey> insertedKeys) {
+		if ( operation instanceof InsertOrUpdateTupleOperation ) {
+			InsertOrUpdateTupleOperation tupleOperation = (InsertOrUpdateTupleOperation) operation;
+			addWriteTupleQuery( db, tupleOperation.getEntityKey(), tupleOperation.getTuplePointer(), script, insertedKeys );
+		}
+		else if ( operation instanceof RemoveTupleOperation ) {
+			EntityKey key = ( (RemoveTupleOperation) operation ).getEntityKey();
+			script.add( entityQueries.get( key.getMetadata() ).generateRemoveEntityQuery( key ) );
+		}
+		else if ( operation instanceof InsertOrUpdateAssociationOperation ) {
+			InsertOrUpdateAssociationOperation associationOperation = (InsertOrUpdateAssociationOperation) operation;
+			addWriteAssociationQueries( db, associationOperation.getAssociationKey(), associationOperation.getAssociation(),
+					associationOperation.getContext(), script );
+		}
+		else if ( operation instanceof RemoveAssociationOperation ) {
+			RemoveAssociationOperation associationOperation = (RemoveAssociationOperation) operation;
+			AssociationKey associationKey = associationOperation.getAssociationKey();
+			if ( !associationKey.getMetadata().isInverse() ) {
+				script.add( associationQueries.get( associationKey.getMetadata() )
+						.generateRemoveAssociationQuery( associationKey, associationOperation.getContext() ) );
+			}
+		}
+		else if ( operation instanceof GroupedChangesToEntityOperation ) {
+			for ( Operation entityOperation : ( (GroupedChangesToEntityOperation) operation ).getOperations() ) {
+				addOperationQueries( db, entityOperation, script, insertedKeys );
+			}
+		}
+		else {
+			throw new UnsupportedOperationException( "Operation not supported: " + operation.getClass().getSimpleName() );
+		}
+	}
+
+	private void addWriteAssociationQueries(ODatabaseDocument db, AssociationKey associationKey, Association association,
+			AssociationContext associationContext, List<GenerationResult> script) {
+		OrientDBAssociationQueries queries = associationQueries.get( associationKey.getMetadata() );
+		boolean isInverse = associationKey.getMetadata().isInverse();
+		// keys of stored rows. The rows are loaded only if the association has PUT operations
+		Set<List<Object>> storedRows = null;
+		for ( AssociationOperation action : association.getOperations() ) {
+			switch ( action.getType() ) {
+				case CLEAR:
+					if ( !isInverse ) {
+						script.add( queries.generateRemoveAssociationQuery( associationKey, associationContext ) );
+						storedRows = new HashSet<>();
+					}
+					break;
+				case REMOVE:
+					if ( !isInverse ) {
+						script.add( queries.generateRemoveAssociationRowQuery( associationKey, action.getKey() ) );
+						if ( storedRows != null ) {
+							storedRows.remove( queries.toRelationshipKey( associationKey, action.getKey() ) );
+						}
+					}
+					break;
+				case PUT:
+					if ( queries == null ) {
+						log.debugf( "addWriteAssociationQueries: no associations for  metadata: %s", associationKey.getMetadata() );
+						break;
+					}
+					if ( storedRows == null ) {
+						storedRows = queries.findRelationshipKeys( db, associationKey, action.getKey() );
+					}
+					if ( storedRows.add( queries.toRelationshipKey( associationKey, action.getKey() ) ) ) {
+						script.add( INSERT_QUERY_GENERATOR.generate( associationKey.getTable(), action.getValue(), false,
+								Collections.<String>emptySet() ) );
+					}
+					else if ( AssociationKind.EMBEDDED_COLLECTION.equals( associationKey.getMetadata().getAssociationKind() ) ) {
+						script.add( UPDATE_QUERY_GENERATOR.generate( associationKey, action.getValue() ) );
+					}
+					break;
+			}
+		}
+	}
+
+	private void addWriteTupleQuery(ODatabaseDocument db, EntityKey key, TuplePointer tuplePointer, List<GenerationResult> script,
+			List<EntityKey> insertedKeys) {
+		Tuple tuple = tuplePointer.getTuple();
+		OrientDBTupleSnapshot snapshot = (OrientDBTupleSnapshot) tuple.getSnapshot();
+		QueryType queryType = QueryTypeDefiner.define( tuple.getSnapshotType(), snapshot.getDocument().getIdentity().isPersistent(),
+				() -> EntityKeyUtil.existsPrimaryKeyInDB( db, key ) );
+		GenerationResult query = generateWriteTupleQuery( key, tuple, queryType );
+		script.add( query );
+		if ( QueryType.INSERT.equals( queryType ) ) {
+			insertedKeys.add( key );
+			// the content of the inserted document. Next writes of the tuple are updates.
+			ODocument content = (ODocument) query.getPreparedStatementParams().get( 0 );
+			tuplePointer.setTuple( new Tuple( new OrientDBTupleSnapshot( content ), SnapshotType.UPDATE ) );
+		}
+	}
+
+	private void executeScript(ODatabaseDocument db, List<GenerationResult> script, List<EntityKey> insertedKeys) {
+		try {
+			NativeQueryUtil.executeScript( provider.getNativeQuerySettings(), db, script );
+		}
+		catch (ORecordDuplicatedException e) {
+			for ( EntityKey key : insertedKeys ) {
+				if ( EntityKeyUtil.isPrimaryKeyIndex( db, key, e.getIndexName() ) ) {
+					throw new TupleAlreadyExistsException( key, e );
+				}
+			}
+			throw e;
+		}
+		finally {
+			script.clear();
+			insertedKeys.clear();
+		}
+	}
+
+	private void executeOperation(Operation operation) {
+		if ( operation instanceof InsertOrUpdateTupleOperation ) {
+			InsertOrUpdateTupleOperation tupleOperation = (InsertOrUpdateTupleOperation) operation;
+			insertOrUpdateTuple( tupleOperation.getEntityKey(), tupleOperation.getTuplePointer(), tupleOperation.getTupleContext() );
+		}
+		else if ( operation instanceof RemoveTupleOperation ) {
+			RemoveTupleOperation tupleOperation = (RemoveTupleOperation) operation;
+			removeTuple( tupleOperation.getEntityKey(), tupleOperation.getTupleContext() );
+		}
+		else if ( operation instanceof InsertOrUpdateAssociationOperation ) {
+			InsertOrUpdateAssociationOperation associationOperation = (InsertOrUpdateAssociationOperation) operation;
+			insertOrUpdateAssociation( associationOperation.getAssociationKey(), associationOperation.getAssociation(),
+					associationOperation.getContext() );
+		}
+		else if ( operation instanceof RemoveAssociationOperation ) {
+			RemoveAssociationOperation associationOperation = (RemoveAssociationOperation) operation;
+			removeAssociation( associationOperation.getAssociationKey(), associationOperation.getContext() );
+		}
+		else if ( operation instanceof GroupedChangesToEntityOperation ) {
+			for ( Operation entityOperation : ( (GroupedChangesToEntityOperation) operation ).getOperations() ) {
+				executeOperation( entityOperation );
+			}
+		}
+		else {
+			throw new UnsupportedOperationException( "Operation not supported: " + operation.getClass().getSimpleName() );
+		}
+	}
+
+	/**
+	 * @return context of the operation or {@code null} if the operation has no context
+	 */
+	private OperationContext getOperationContext(Operation operation) {
+		if ( operation instanceof InsertOrUpdateTupleOperation ) {
+			return ( (InsertOrUpdateTupleOperation) operation ).getTupleContext();
+		}
+		else if ( operation instanceof RemoveTupleOperation ) {
+			return ( (RemoveTupleOperation) operation ).getTupleContext();
+		}
+		else if ( operation instanceof InsertOrUpdateAssociationOperation ) {
+			return ( (InsertOrUpdateAssociationOperation) operation ).getContext();
+		}
+		else if ( operation instanceof RemoveAssociationOperation ) {
+			return ( (RemoveAssociationOperation) operation ).getContext();
+		}
+		else if ( operation instanceof GroupedChangesToEntityOperation ) {
+			Iterator<Operation> entityOperations = ( (GroupedChangesToEntityOperation) operation ).getOperations().iterator();
+			return entityOperations.hasNext() ? getOperationContext( entityOperations.next() ) : null;
+		}
+		return null;
+	}
+
+	/**
+	 * Get connection for the operation. If connections are bound to transactions, the connection of the transaction
+	 * of the operation is activated on the current thread.
+	 *
+	 * @param operationContext context of the operation. Can be {@code null}.
+	 * @return connection
+	 */
+	private ODatabaseDocument getDatabase(OperationContext operationContext) {
+		return provider.getDatabase( operationContext != null ? operationContext.getTransactionContext() : null );
+	}
+
+	/**
+	 * Get connection for write operation. Deferred OrientDB transaction of read-only session is begun, so the write
+	 * takes part in the transaction.
+	 *
+	 * @param operationContext context of the operation. Can be {@code null}.
+	 * @return connection
+	 */
+	private ODatabaseDocument getDatabaseForWrite(OperationContext operationContext) {
+		return provider.getDatabaseForWrite( operationContext != null ? operationContext.getTransactionContext() : null );
+	}
+
 	@Override
 	public boolean isStoredInEntityStructure(AssociationKeyMetadata associationKeyMetadata, AssociationTypeContext associationTypeContext) {
 		return true;
@@ -389,13 +845,15 @@ public class OrientDBDialect extends BaseGridDialect
 	@Override
 	public Number nextValue(NextValueRequest request) {
 		log.debugf( "NextValueRequest: %s", request );
+		OrientDBMetrics metrics = provider.getMetrics();
+		long start = metrics.isEnabled() ? System.nanoTime() : 0L;
 		long nextValue = 0;
-		ODatabaseDocument db = provider.getCurrentDatabase();
+		// values are taken by own connection of the allocators, the request does not need connection of the thread
 		IdSourceType type = request.getKey().getMetadata().getType();
 		switch ( type ) {
 			case SEQUENCE:
 				String seqName = request.getKey().getMetadata().getName();
-				nextValue = SequenceUtil.getNextSequenceValue( db, seqName );
+				nextValue = provider.getSequenceAllocators().getNextSequenceValue( seqName );
 				break;
 			case TABLE:
 				String seqTableName = request.getKey().getTable();
@@ -404,10 +862,13 @@ public class OrientDBDialect extends BaseGridDialect
 				String pkColumnValue = request.getKey().getColumnValue();
 				log.debugf( "seqTableName:%s, pkColumnName:%s, pkColumnValue:%s, valueColumnName:%s",
 						seqTableName, pkColumnName, pkColumnValue, valueColumnName );
-				nextValue = SequenceUtil.getNextTableValue( db, seqTableName, pkColumnName, pkColumnValue, valueColumnName,
+				nextValue = provider.getSequenceAllocators().getNextTableValue( seqTableName, pkColumnName, pkColumnValue, valueColumnName,
 						request.getInitialValue(), request.getIncrement() );
 		}
 		log.debugf( "nextValue: %d", nextValue );
+		if ( metrics.isEnabled() ) {
+			metrics.record( OrientDBOperation.NEXT_VALUE, request.getKey().getTable(), System.nanoTime() - start, 1, 0 );
+		}
 		return nextValue;
 	}
 
@@ -419,31 +880,32 @@ public class OrientDBDialect extends BaseGridDialect
 	/**
 	 * Prepare PreparedStemenet for execute NoSQL query
 	 *
+	 * @param db connection
 	 * @param backendQuery represention of NoSQL query
 	 * @param queryParameters parameters of the query
-	 * @return Collection with documents
+	 * @return iterator through open result set
 	 * @see ODocument
 	 */
 
-	private List<ODocument> executeNativeQueryWithParams(BackendQuery<String> backendQuery, QueryParameters queryParameters) {
-		Map<String, Object> parameters = getNamedParameterValuesConvertedByGridType( queryParameters );
+	private ClosableIterator<Tuple> executeNativeQueryWithParams(ODatabaseDocument db, BackendQuery<String> backendQuery,
+			QueryParameters queryParameters) {
+		// values are converted as values of columns are converted by writes, so they match the stored values
+		Map<String, Object> queryParams = getNamedParameterValuesConvertedByGridType( queryParameters );
 		log.debugf( "executeNativeQueryWithParams: parameters: %s ; ",
-				parameters.keySet() );
+				queryParams.keySet() );
 		String nativeQueryTemplate = backendQuery.getQuery();
 		EntityMetadataInformation queryMetadata = backendQuery.getSingleEntityMetadataInformationOrNull();
 		log.debugf( "executeNativeQueryWithParams: nativeQuery: %s ; metadata: %s",
-				backendQuery.getQuery(), queryMetadata.toString() );
-		Map<String, Object> queryParams = new HashMap<>();
-		for ( Map.Entry<String, TypedGridValue> entry : queryParameters.getNamedParameters().entrySet() ) {
-			String key = entry.getKey();
-			TypedGridValue value = entry.getValue();
-			log.debugf( "executeNativeQueryWithParams: paramName: %s ; type: %s ; value: %s; type class: %s ",
-					key, value.getType(), value.getValue(), value.getType().getReturnedClass() );
-			queryParams.put( key, value.getValue() );
+				backendQuery.getQuery(), queryMetadata );
+		RowSelection rowSelection = queryParameters.getRowSelection();
+		if ( rowSelection != null ) {
+			nativeQueryTemplate = RowSelectionUtil.applyRowSelection( nativeQueryTemplate, rowSelection.getFirstRow(), rowSelection.getMaxRows(),
+					queryParams );
 		}
 		log.debugf( "executeNativeQueryWithParams: nativeQuery: %s ; params: %s",
-				backendQuery.getQuery(), queryParams );
-		return NativeQueryUtil.executeIdempotentQueryWithParams( provider.getCurrentDatabase(), nativeQueryTemplate, queryParams );
+				nativeQueryTemplate, queryParams );
+		String className = queryMetadata != null ? queryMetadata.getEntityKeyMetadata().getTable() : null;
+		return NativeQueryUtil.openIdempotentQuery( provider.getNativeQuerySettings(), db, nativeQueryTemplate, queryParams, className );
 	}
 
 	@Override
@@ -454,26 +916,29 @@ public class OrientDBDialect extends BaseGridDialect
 
 	@Override
 	public ClosableIterator<Tuple> executeBackendQuery(BackendQuery<String> query, QueryParameters queryParameters, TupleContext tupleContext) {
-		return new ODocumentListTupleIterator( executeNativeQueryWithParams( query, queryParameters ) );
+		return executeNativeQueryWithParams( getDatabase( tupleContext ), query, queryParameters );
 	}
 
 	/**
 	 * Returns a map with the named parameter values from the given parameters object, converted by the {@link GridType}
-	 * corresponding to each parameter type.
+	 * corresponding to each parameter type and by {@link EntityKeyUtil#toParameterValue(Object)}.
 	 */
 	private Map<String, Object> getNamedParameterValuesConvertedByGridType(QueryParameters queryParameters) {
 		Map<String, Object> parameterValues = new LinkedHashMap<>( queryParameters.getNamedParameters().size() );
 		Tuple dummy = new Tuple();
 		for ( Map.Entry<String, TypedGridValue> parameter : queryParameters.getNamedParameters().entrySet() ) {
 			parameter.getValue().getType().nullSafeSet( dummy, parameter.getValue().getValue(), new String[]{ parameter.getKey() }, null );
-			parameterValues.put( parameter.getKey(), dummy.get( parameter.getKey() ) );
+			Object value = EntityKeyUtil.toParameterValue( dummy.get( parameter.getKey() ) );
+			log.debugf( "getNamedParameterValuesConvertedByGridType: paramName: %s ; type: %s ; value: %s",
+					parameter.getKey(), parameter.getValue().getType(), value );
+			parameterValues.put( parameter.getKey(), value );
 		}
 		return parameterValues;
 	}
 
 	@Override
 	public ParameterMetadataBuilder getParameterMetadataBuilder() {
-		return new OrientDBParameterMetadataBuilder();
+		return parameterMetadataBuilder;
 	}
 
 	@Override
@@ -504,7 +969,7 @@ public class OrientDBDialect extends BaseGridDialect
 			EntityKeyMetadata entityKeyMetadata = associationKeyMetadata.getAssociatedEntityKeyMetadata().getEntityKeyMetadata();
 			if ( !entityQueries.containsKey( entityKeyMetadata ) ) {
 				// Embeddables metadata
-				entityQueries.put( entityKeyMetadata, new OrientDBEntityQueries( entityKeyMetadata ) );
+				entityQueries.put( entityKeyMetadata, new OrientDBEntityQueries( entityKeyMetadata, provider.getNativeQuerySettings() ) );
 			}
 		}
 		return entityQueries;
@@ -524,7 +989,8 @@ public class OrientDBDialect extends BaseGridDialect
 		for ( EntityPersister entityPersister : entityPersisters ) {
 			if ( entityPersister instanceof OgmEntityPersister ) {
 				OgmEntityPersister ogmEntityPersister = (OgmEntityPersister) entityPersister;
-				queryMap.put( ogmEntityPersister.getEntityKeyMetadata(), new OrientDBEntityQueries( ogmEntityPersister.getEntityKeyMetadata() ) );
+				queryMap.put( ogmEntityPersister.getEntityKeyMetadata(),
+						new OrientDBEntityQueries( ogmEntityPersister.getEntityKeyMetadata(), provider.getNativeQuerySettings() ) );
 			}
 		}
 		return queryMap;
@@ -552,7 +1018,8 @@ public class OrientDBDialect extends BaseGridDialect
 				AssociationKeyMetadata associationKeyMetadata = ogmCollectionPersister.getAssociationKeyMetadata();
 
 				log.debugf( "initializeAssociationQueries: associationKeyMetadata : %s", associationKeyMetadata );
-				queryMap.put( associationKeyMetadata, new OrientDBAssociationQueries( ownerEntityKeyMetadata, associationKeyMetadata ) );
+				queryMap.put( associationKeyMetadata,
+						new OrientDBAssociationQueries( ownerEntityKeyMetadata, associationKeyMetadata, provider.getNativeQuerySettings() ) );
 			}
 		}
 		return queryMap;
@@ -576,6 +1043,7 @@ public class OrientDBDialect extends BaseGridDialect
 
 	@Override
 	public DuplicateInsertPreventionStrategy getDuplicateInsertPreventionStrategy(EntityKeyMetadata entityKeyMetadata) {
-		return DuplicateInsertPreventionStrategy.LOOK_UP;
+		// the unique index of primary key is created by schema definer
+		return DuplicateInsertPreventionStrategy.NATIVE;
 	}
 }
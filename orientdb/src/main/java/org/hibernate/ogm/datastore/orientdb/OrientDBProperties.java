@@ -51,6 +51,109 @@ public class OrientDBProperties implements OgmProperties {
 	 */
 	public static final String PLOCAL_PATH = "hibernate.ogm.orientdb.plocal.path";
 
+	/**
+	 * The way of writing entities to the datastore. Default value is {@code SQL}.
+	 *
+	 * @see WriteModeEnum
+	 */
+	public static final String WRITE_MODE = "hibernate.ogm.orientdb.write.mode";
+
+	/**
+	 * Number of values of a sequence that are reserved by one request to the datastore. Values are handed out from the
+	 * reserved block without requests to the datastore. Value {@code 1} disables the reservation. Default value is
+	 * {@code 50}.
+	 */
+	public static final String SEQUENCE_BLOCK_SIZE = "hibernate.ogm.orientdb.sequence.block_size";
+
+	/**
+	 * Type of sequences, that are created by the schema definer. Default value is {@code ORDERED}. Type of sequences
+	 * of an entity can be set by {@link org.hibernate.ogm.datastore.orientdb.options.CachedSequence}.
+	 *
+	 * @see SequenceTypeEnum
+	 */
+	public static final String SEQUENCE_TYPE = "hibernate.ogm.orientdb.sequence.type";
+
+	/**
+	 * Number of values, that are cached by {@code CACHED} sequences. Default value is {@code 20}.
+	 */
+	public static final String SEQUENCE_CACHE_SIZE = "hibernate.ogm.orientdb.sequence.cache_size";
+
+	/**
+	 * The way of binding of connections. Default value is {@code THREAD}.
+	 *
+	 * @see ConnectionBindingEnum
+	 */
+	public static final String CONNECTION_BINDING = "hibernate.ogm.orientdb.connection.binding";
+
+	/**
+	 * Register statistics of the pool of connections and statistics of conflicts of transactions as JMX MBeans
+	 * ({@code org.hibernate.ogm.orientdb:type=ConnectionPool,database=<database name>} and
+	 * {@code org.hibernate.ogm.orientdb:type=TransactionConflicts,database=<database name>}). Statistics of operations
+	 * ({@code org.hibernate.ogm.orientdb:type=Operations,database=<database name>}) is registered too, if the
+	 * metrics ({@link #METRICS}) implement {@link org.hibernate.ogm.datastore.orientdb.metrics.OrientDBOperationStatistics}.
+	 * Accepts {@code boolean}.
+	 * Default value is {@code false}. The statistics is always available by
+	 * {@link org.hibernate.ogm.datastore.orientdb.impl.OrientDBDatastoreProvider#getPoolStatistics()}.
+	 */
+	public static final String POOL_JMX_ENABLED = "hibernate.ogm.orientdb.pool.jmx_enabled";
+
+	/**
+	 * Number of sessions of the pool, that are opened at start (after initialization of the schema). The schema and
+	 * the indexes of mapped classes are loaded by the sessions. Value {@code 0} disables the warm-up. Default value is
+	 * {@code 0}.
+	 */
+	public static final String POOL_WARMUP_SIZE = "hibernate.ogm.orientdb.pool.warmup_size";
+
+	/**
+	 * Idempotent queries, that are executed by the warm-up of the pool. Queries are separated by ';'. Accepts
+	 * {@code String}.
+	 */
+	public static final String POOL_WARMUP_QUERIES = "hibernate.ogm.orientdb.pool.warmup_queries";
+
+	/**
+	 * Max number of executions of isolated work, that is marked by
+	 * {@link org.hibernate.ogm.datastore.orientdb.transaction.IdempotentWork}, if its transaction fails because of
+	 * concurrent modification of records. Value {@code 1} disables repeating. Default value is {@code 1}.
+	 */
+	public static final String RETRY_MAX_ATTEMPTS = "hibernate.ogm.orientdb.retry.max_attempts";
+
+	/**
+	 * Max pause (in milliseconds) before the second execution of isolated work. The pause is doubled for each next
+	 * execution and is randomized. Default value is {@code 10}.
+	 */
+	public static final String RETRY_INITIAL_BACKOFF = "hibernate.ogm.orientdb.retry.initial_backoff";
+
+	/**
+	 * Upper limit of pause (in milliseconds) between executions of isolated work. Default value is {@code 1000}.
+	 */
+	public static final String RETRY_MAX_BACKOFF = "hibernate.ogm.orientdb.retry.max_backoff";
+
+	/**
+	 * Number of documents, that are committed by one transaction of
+	 * {@link org.hibernate.ogm.datastore.orientdb.bulk.OrientDBBulkLoader}. Default value is {@code 1000}.
+	 */
+	public static final String BULK_CHUNK_SIZE = "hibernate.ogm.orientdb.bulk.chunk_size";
+
+	/**
+	 * Implementation of {@link org.hibernate.ogm.datastore.orientdb.metrics.OrientDBMetrics}. Accepts an instance, a
+	 * class, a fully qualified class name or short name: {@code none} (metrics are not collected) and {@code memory}
+	 * ({@link org.hibernate.ogm.datastore.orientdb.metrics.InMemoryMetrics}). Default value is {@code none}.
+	 */
+	public static final String METRICS = "hibernate.ogm.orientdb.metrics";
+
+	/**
+	 * Threshold (in milliseconds) of log of slow queries. Native queries and scripts, that take longer, are logged (with
+	 * template of query, types of parameters and number of rows) at level {@code WARN}. Accepts {@code int}. Default
+	 * value is {@code -1} (slow queries are not logged).
+	 */
+	public static final String SLOW_QUERY_THRESHOLD = "hibernate.ogm.orientdb.slow_query.threshold_ms";
+
+	/**
+	 * Log plan of slow query too. The plan is got by repeated execution of the query with {@code EXPLAIN}, so it is
+	 * recommended to use it only while tuning of indexes. Accepts {@code boolean}. Default value is {@code false}.
+	 */
+	public static final String SLOW_QUERY_EXPLAIN = "hibernate.ogm.orientdb.slow_query.explain";
+
 	/**
 	 * Enumeration of database's types
 	 *
@@ -63,4 +166,38 @@ public class OrientDBProperties implements OgmProperties {
 	public static enum DatabaseTypeEnum {
 		DOCUMENT, GRAPH;
 	}
+
+	/**
+	 * Enumeration of write modes.
+	 * <p>
+	 * {@code SQL} - entities are inserted, updated and removed by SQL commands. {@code DOCUMENT} - entities are
+	 * written by Document API: the loaded document is changed and saved, removed by record id.
+	 * </p>
+	 */
+	public static enum WriteModeEnum {
+		SQL, DOCUMENT
+	}
+
+	/**
+	 * Enumeration of types of sequences.
+	 * <p>
+	 * {@code ORDERED} - each value is stored in the database, values are ordered and without gaps. {@code CACHED} -
+	 * the database caches range of values, values can have gaps.
+	 * </p>
+	 */
+	public static enum SequenceTypeEnum {
+		ORDERED, CACHED
+	}
+
+	/**
+	 * Enumeration of ways of binding of connections.
+	 * <p>
+	 * {@code THREAD} - connection is bound to the thread till completion of the transaction. {@code TRANSACTION} -
+	 * connection is bound to the resource-local transaction and is activated on the thread, that works with the
+	 * transaction. It fits for virtual threads: number of connections does not depend on number of threads.
+	 * </p>
+	 */
+	public static enum ConnectionBindingEnum {
+		THREAD, TRANSACTION
+	}
 }
@@ -0,0 +1,239 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.bulk;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
+import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.orientdb.utils.DocumentUtil;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.index.OIndexDefinition;
+import com.orientechnologies.orient.core.intent.OIntentMassiveInsert;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.core.tx.OTransaction.TXTYPE;
+
+/**
+ * Loader of big amount of documents.
+ * <p>
+ * The loader works by own connection (not taken from the pool and not bound to the current transaction) with
+ * declared intent {@link OIntentMassiveInsert}. Documents are written by Document API (without generation of SQL)
+ * and are committed by chunks in transactions without log. Non-unique indexes of a class can be dropped before the
+ * load and rebuilt at the end of the load (see {@link #deferIndexes(String)}).
+ * </p>
+ * <p>
+ * The loader must be used by one thread and must be closed.
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ * @see <a href="http://orientdb.com/docs/3.0.x/java/Document-API-Documents.html">Documents in OrientDB</a>
+ */
+public class OrientDBBulkLoader implements AutoCloseable {
+
+	private static final Log log = LoggerFactory.getLogger();
+
+	private final ODatabaseDocument db;
+	private final int chunkSize;
+	private final List<DeferredIndex> deferredIndexes = new ArrayList<>();
+	private final long start = System.currentTimeMillis();
+	private int chunkCount;
+	private long insertedCount;
+
+	/**
+	 * Contractor
+	 *
+	 * @param db own connection of the loader. The connection is closed by the loader.
+	 * @param chunkSize number of documents, that are committed by one transaction
+	 */
+	public OrientDBBulkLoader(ODatabaseDocument db, int chunkSize) {
+		this.db = db;
+		this.chunkSize = Math.max( chunkSize, 1 );
+		db.activateOnCurrentThread();
+		db.declareIntent( new OIntentMassiveInsert() );
+	}
+
+	/**
+	 * Drop non-unique indexes of the class. The indexes are created again (with the same definition, clusters,
+	 * metadata and algorithm) and rebuilt by {@link #close()}. The method must be called before insert of documents of
+	 * the class.
+	 * <p>
+	 * Unique indexes (including indexes of primary keys) are never dropped: the running application looks up entities
+	 * and prevents duplicates by them.
+	 * </p>
+	 *
+	 * @param className name of class
+	 */
+	public void deferIndexes(String className) {
+		db.activateOnCurrentThread();
+		OClass oClass = db.getMetadata().getSchema().getClass( className );
+		if ( oClass == null ) {
+			return;
+		}
+		for ( OIndex<?> index : oClass.getIndexes() ) {
+			if ( index.getType().startsWith( OClass.INDEX_TYPE.UNIQUE.name() ) ) {
+				log.debugf( "unique index %s of class %s is not deferred", index.getName(), className );
+				continue;
+			}
+			DeferredIndex deferredIndex = new DeferredIndex( className, index );
+			log.debugf( "defer index %s of class %s", deferredIndex.name, className );
+			try ( OResultSet resultSet = db.command( "DROP INDEX `" + deferredIndex.name + "`" ) ) {
+				deferredIndexes.add( deferredIndex );
+			}
+		}
+	}
+
+	/**
+	 * Insert new document
+	 *
+	 * @param className name of class of the document
+	 * @param columns values of columns. Embedded columns (like 'class1.class2.field1') are stored as embedded
+	 * documents.
+	 */
+	public void insert(String className, Map<String, ?> columns) {
+		ODocument document = new ODocument( className );
+		for ( Map.Entry<String, ?> column : columns.entrySet() ) {
+			DocumentUtil.setField( document, column.getKey(), column.getValue(), false );
+		}
+		insert( document );
+	}
+
+	/**
+	 * Insert new document
+	 *
+	 * @param document the document
+	 */
+	public void insert(ODocument document) {
+		db.activateOnCurrentThread();
+		if ( !db.getTransaction().isActive() ) {
+			db.begin( TXTYPE.OPTIMISTIC );
+			db.getTransaction().setUsingLog( false );
+		}
+		db.save( document );
+		if ( ++chunkCount >= chunkSize ) {
+			flush();
+		}
+	}
+
+	/**
+	 * Commit inserted documents
+	 */
+	public void flush() {
+		db.activateOnCurrentThread();
+		if ( db.getTransaction().isActive() ) {
+			db.commit();
+		}
+		insertedCount += chunkCount;
+		chunkCount = 0;
+	}
+
+	/**
+	 * @return number of committed documents
+	 */
+	public long getInsertedCount() {
+		return insertedCount;
+	}
+
+	/**
+	 * Commit inserted documents, rebuild deferred indexes and close the connection. The deferred indexes are rebuilt
+	 * even if the commit fails; failure of one index does not stop rebuild of other indexes.
+	 */
+	@Override
+	public void close() {
+		RuntimeException failure = null;
+		try {
+			db.activateOnCurrentThread();
+			flush();
+		}
+		catch (RuntimeException e) {
+			failure = e;
+		}
+		try {
+			int rebuilt = rebuildIndexes();
+			log.infof( "bulk load: documents: %d; rebuilt indexes: %d of %d; time: %d ms", insertedCount,
+					rebuilt, deferredIndexes.size(), System.currentTimeMillis() - start );
+		}
+		catch (RuntimeException e) {
+			failure = addFailure( failure, e );
+		}
+		finally {
+			db.activateOnCurrentThread();
+			db.declareIntent( null );
+			db.close();
+		}
+		if ( failure != null ) {
+			throw failure;
+		}
+	}
+
+	private int rebuildIndexes() {
+		int rebuilt = 0;
+		RuntimeException failure = null;
+		for ( DeferredIndex index : deferredIndexes ) {
+			log.debugf( "rebuild index %s of class %s", index.name, index.className );
+			try {
+				db.activateOnCurrentThread();
+				db.getMetadata().getIndexManager().createIndex( index.name, index.type, index.definition,
+						index.getClusterIds( db ), null, index.metadata, index.algorithm );
+				rebuilt++;
+			}
+			catch (RuntimeException e) {
+				failure = addFailure( failure, log.cannotRebuildIndex( index.name, e ) );
+			}
+		}
+		if ( failure != null ) {
+			throw failure;
+		}
+		return rebuilt;
+	}
+
+	private static RuntimeException addFailure(RuntimeException failure, RuntimeException e) {
+		if ( failure == null ) {
+			return e;
+		}
+		failure.addSuppressed( e );
+		return failure;
+	}
+
+	private static class DeferredIndex {
+
+		private final String className;
+		private final String name;
+		private final String type;
+		private final OIndexDefinition definition;
+		private final Set<String> clusters;
+		private final ODocument metadata;
+		private final String algorithm;
+
+		private DeferredIndex(String className, OIndex<?> index) {
+			this.className = className;
+			this.name = index.getName();
+			this.type = index.getType();
+			// the definition keeps fields, types, collate and handling of null values
+			this.definition = index.getDefinition();
+			this.clusters = new HashSet<>( index.getClusters() );
+			this.metadata = index.getMetadata() != null ? index.getMetadata().copy() : null;
+			this.algorithm = index.getAlgorithm();
+		}
+
+		private int[] getClusterIds(ODatabaseDocument db) {
+			int[] clusterIds = new int[clusters.size()];
+			int i = 0;
+			for ( String cluster : clusters ) {
+				clusterIds[i++] = db.getClusterIdByName( cluster );
+			}
+			return clusterIds;
+		}
+	}
+}
@@ -6,12 +6,21 @@
  */
 package org.hibernate.ogm.datastore.orientdb.connection;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabasePool;
 import com.orientechnologies.orient.core.db.ODatabaseType;
 import com.orientechnologies.orient.core.db.OrientDB;
 import com.orientechnologies.orient.core.db.OrientDBConfig;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.exception.OAcquireTimeoutException;
 
 import org.hibernate.ogm.datastore.orientdb.OrientDBProperties;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
@@ -21,8 +30,21 @@ import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
  * The class is thread local database holder.
  * <p>
  * OrientDB uses paradigm "one thread-&gt; one transaction-&gt; one database connection". For implement it, Hibernate
- * OGM uses thread local class for hold connection for each thread (and each transaction). Each thread get part in
- * <b>only one transaction</b>.
+ * OGM binds connection to the thread for the time of transaction. Each thread get part in <b>only one
+ * transaction</b>.
+ * </p>
+ * <p>
+ * The connection is acquired from the pool on first use and is released back to the pool at completion of the
+ * transaction (see {@link #releaseTransaction(Object)}), so the pool can serve more threads than its size. Transactions,
+ * that share the connection of the thread, are counted (see {@link #retain(Object)}) and the connection is released by
+ * the last completed one.
+ * </p>
+ * <p>
+ * A connection can be bound to a transaction instead of a thread (see {@link #bind(Object)}). The connection of the
+ * transaction is activated on the thread that works with the transaction ({@link #activate(Object)}), so the
+ * transaction can be served by any thread (for example, by virtual threads). The thread remembers only identifier of
+ * the transaction; the connection is resolved by the identifier on each call, so a thread never keeps connection of
+ * completed transaction.
  * </p>
  *
  * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
@@ -31,22 +53,31 @@ import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
  * @see <a href="https://orientdb.com/docs/3.0.x/java/Java-Multi-Threading.html">Multi-Threading in OrientDB</a>
  * @see <a href="https://orientdb.com/docs/3.0.x/java/Document-API-Database.html">Database creation in OrientDB 3</a>
  */
-public class DatabaseHolder extends ThreadLocal<ODatabaseDocument> {
+public class DatabaseHolder {
 
 	private static Log log = LoggerFactory.getLogger();
 	private final String orientDbUrl;
 	private final String user;
 	private final String password;
+	private final String databaseName;
 	private final OrientDBConfig orientDBConfig;
 	private final ODatabasePool orientDBPool;
 	private final OrientDB orientDBEnv;
+	private final ThreadLocal<DatabaseLease> currentLease = new ThreadLocal<>();
+	private final ThreadLocal<Object> currentTransaction = new ThreadLocal<>();
+	private final ThreadLocal<ODatabaseDocument> isolatedDatabase = new ThreadLocal<>();
+	private final ConcurrentMap<Object, DatabaseLease> transactionDatabases = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Object, DatabaseLease> retainedLeases = new ConcurrentHashMap<>();
+	private final Set<ODatabaseDocument> deferredTransactions = Collections.newSetFromMap( new ConcurrentHashMap<>() );
+	private final OrientDBPoolStatisticsImpl statistics;
 
 	public DatabaseHolder(String orientDbUrl, String user, String password, Integer poolSize,String databaseName,
 			Boolean needCreateNewDatabase, OrientDBProperties.StorageModeEnum storageMode ) {
-		super();
 		this.orientDbUrl = orientDbUrl;
 		this.user = user;
 		this.password = password;
+		this.databaseName = databaseName;
+		this.statistics = new OrientDBPoolStatisticsImpl( poolSize );
 		this.orientDBConfig = OrientDBConfig.builder()
 				.addConfig( OGlobalConfiguration.DB_POOL_MAX, poolSize )
 				.build();
@@ -68,17 +99,315 @@ public class DatabaseHolder extends ThreadLocal<ODatabaseDocument> {
 		this.orientDBPool = new ODatabasePool( orientDBEnv, databaseName, this.user, this.password );
 	}
 
-	@Override
-	protected ODatabaseDocument initialValue() {
-		log.debugf( "create database %s for thread %s", orientDbUrl, Thread.currentThread().getName() );
-		return orientDBPool.acquire();
+	/**
+	 * Get connection of the current thread. If the thread works with a transaction, that is bound to connection, the
+	 * connection of the transaction is returned. If the thread has no connection, the connection is acquired from the
+	 * pool.
+	 *
+	 * @return connection of the current thread
+	 */
+	public ODatabaseDocument get() {
+		ODatabaseDocument isolated = isolatedDatabase.get();
+		if ( isolated != null ) {
+			if ( !isolated.isActiveOnCurrentThread() ) {
+				isolated.activateOnCurrentThread();
+			}
+			return isolated;
+		}
+		DatabaseLease lease = getTransactionLease();
+		ODatabaseDocument database = lease != null ? lease.getDatabase() : getLease().getDatabase();
+		if ( !database.isActiveOnCurrentThread() ) {
+			database.activateOnCurrentThread();
+		}
+		return database;
+	}
+
+	/**
+	 * Get lease of connection of the current thread. If the thread has no connection or its connection is released
+	 * (for example, by other thread at completion of JTA transaction), new connection is acquired from the pool.
+	 *
+	 * @return lease of connection of the current thread
+	 */
+	public DatabaseLease getLease() {
+		DatabaseLease lease = currentLease.get();
+		if ( lease != null && !lease.isReleased() && lease.getDatabase().isClosed() ) {
+			// the connection is closed by other code
+			release( lease );
+		}
+		if ( lease == null || lease.isReleased() ) {
+			log.debugf( "acquire database %s for thread %s", orientDbUrl, Thread.currentThread().getName() );
+			lease = acquire( "thread " + Thread.currentThread().getName() + " (" + Thread.currentThread().getId() + ")" );
+			currentLease.set( lease );
+		}
+		return lease;
+	}
+
+	/**
+	 * Get lease of connection of the current thread and count the caller as user of the lease. The connection is not
+	 * released back to the pool till the user is removed by {@link #releaseUser(DatabaseLease)}.
+	 *
+	 * @return lease of connection of the current thread
+	 */
+	public DatabaseLease retainLease() {
+		DatabaseLease lease = getLease();
+		lease.retain();
+		return lease;
+	}
+
+	/**
+	 * Use connection of the current thread for the transaction. The transaction is counted as user of the connection
+	 * till {@link #releaseTransaction(Object)}.
+	 *
+	 * @param transactionId identifier of transaction
+	 * @return connection of the current thread
+	 */
+	public ODatabaseDocument retain(Object transactionId) {
+		DatabaseLease lease = retainLease();
+		retainedLeases.put( transactionId, lease );
+		ODatabaseDocument database = lease.getDatabase();
+		if ( !database.isActiveOnCurrentThread() ) {
+			database.activateOnCurrentThread();
+		}
+		return database;
+	}
+
+	/**
+	 * Remove the completed transaction from users of connection of the thread (see {@link #retain(Object)}). The
+	 * connection is released back to the pool, if other transactions do not use it.
+	 *
+	 * @param transactionId identifier of transaction
+	 */
+	public void releaseTransaction(Object transactionId) {
+		releaseUser( retainedLeases.remove( transactionId ) );
+	}
+
+	/**
+	 * Remove user of the lease (see {@link #retainLease()}). The connection is released back to the pool by the last
+	 * user. The lease can be owned by other thread.
+	 *
+	 * @param lease lease of connection
+	 */
+	public void releaseUser(DatabaseLease lease) {
+		if ( lease != null && lease.releaseUser() ) {
+			release( lease );
+		}
+	}
+
+	/**
+	 * Release connection of the current thread back to the pool, if no transaction uses it
+	 */
+	public void releaseUnused() {
+		DatabaseLease lease = currentLease.get();
+		if ( lease != null && !lease.isUsed() ) {
+			release( lease );
+		}
+	}
+
+	/**
+	 * Acquire connection from the pool and bind it to the transaction. The connection becomes current connection of
+	 * the thread.
+	 *
+	 * @param transactionId identifier of transaction
+	 * @return connection of the transaction
+	 */
+	public ODatabaseDocument bind(Object transactionId) {
+		log.debugf( "acquire database %s for transaction %s", orientDbUrl, transactionId );
+		DatabaseLease lease = acquire( "transaction " + transactionId );
+		transactionDatabases.put( transactionId, lease );
+		currentTransaction.set( transactionId );
+		return lease.getDatabase();
+	}
+
+	/**
+	 * Activate connection of the transaction on the current thread. If there is no connection of the transaction,
+	 * connection of the current thread is used.
+	 *
+	 * @param transactionId identifier of transaction
+	 * @return connection of the transaction
+	 */
+	public ODatabaseDocument activate(Object transactionId) {
+		DatabaseLease lease = transactionDatabases.get( transactionId );
+		if ( lease == null || lease.isReleased() ) {
+			return get();
+		}
+		currentTransaction.set( transactionId );
+		ODatabaseDocument database = lease.getDatabase();
+		if ( !database.isActiveOnCurrentThread() ) {
+			database.activateOnCurrentThread();
+		}
+		return database;
+	}
+
+	/**
+	 * Release connection of the transaction back to the pool
+	 *
+	 * @param transactionId identifier of transaction
+	 */
+	public void unbind(Object transactionId) {
+		DatabaseLease lease = transactionDatabases.remove( transactionId );
+		if ( transactionId.equals( currentTransaction.get() ) ) {
+			currentTransaction.remove();
+		}
+		release( lease );
+	}
+
+	/**
+	 * Defer begin of OrientDB transaction of the connection till the first write. The deferral is dropped when the
+	 * connection is released back to the pool, so the pooled connection is not marked for its next owner.
+	 *
+	 * @param database connection of the transaction
+	 */
+	public void deferTransaction(ODatabaseDocument database) {
+		deferredTransactions.add( database );
+	}
+
+	/**
+	 * Cancel the deferred transaction of the connection
+	 *
+	 * @param database connection of the transaction
+	 * @return true if the transaction was deferred
+	 */
+	public boolean cancelDeferredTransaction(ODatabaseDocument database) {
+		return deferredTransactions.remove( database );
+	}
+
+	/**
+	 * Open new connection to the database. The connection is not taken from the pool and is not bound to the current
+	 * thread, so it does not take part in the transaction of the thread. Caller must close the connection.
+	 *
+	 * @return new connection
+	 */
+	public ODatabaseDocument openIsolated() {
+		log.debugf( "open isolated database %s for thread %s", orientDbUrl, Thread.currentThread().getName() );
+		return orientDBEnv.open( databaseName, user, password );
+	}
+
+	/**
+	 * Make the isolated connection current connection of the thread for the time of isolated work. The caller must
+	 * restore the previous value in {@code finally} block.
+	 *
+	 * @param database isolated connection (see {@link #openIsolated()}) or {@code null}
+	 * @return previous isolated connection of the thread or {@code null}
+	 */
+	public ODatabaseDocument setIsolated(ODatabaseDocument database) {
+		ODatabaseDocument previous = isolatedDatabase.get();
+		if ( database == null ) {
+			isolatedDatabase.remove();
+		}
+		else {
+			isolatedDatabase.set( database );
+		}
+		return previous;
+	}
+
+	/**
+	 * Release connection of the current thread back to the pool, even if transactions use it
+	 */
+	public void release() {
+		DatabaseLease lease = currentLease.get();
+		currentLease.remove();
+		release( lease );
+	}
+
+	/**
+	 * Release the connection of the lease back to the pool. The lease can be owned by other thread (for example, JTA
+	 * transaction is completed by other thread). The lease is marked as released, so the other thread acquires new
+	 * connection on next use. The connection is released only once.
+	 *
+	 * @param lease lease of connection
+	 */
+	public void release(DatabaseLease lease) {
+		if ( lease == null ) {
+			return;
+		}
+		if ( currentLease.get() == lease ) {
+			currentLease.remove();
+		}
+		if ( lease.markReleased() ) {
+			statistics.released( lease );
+			ODatabaseDocument database = lease.getDatabase();
+			// the transaction of session, that is closed without completion, must not be begun for next owner
+			deferredTransactions.remove( database );
+			if ( !database.isClosed() ) {
+				log.debugf( "release database for thread %s", Thread.currentThread().getName() );
+				database.activateOnCurrentThread();
+				database.close();
+			}
+		}
+	}
+
+	/**
+	 * Open sessions of the pool before first use. The sessions are acquired at the same time (so the pool creates all
+	 * of them), are passed to the loader and are released back to the pool.
+	 *
+	 * @param sessions number of sessions
+	 * @param loader loader of metadata of the session
+	 */
+	public void warmUp(int sessions, Consumer<ODatabaseDocument> loader) {
+		DatabaseLease current = currentLease.get();
+		List<DatabaseLease> leases = new ArrayList<>( sessions );
+		try {
+			for ( int i = 0; i < sessions; i++ ) {
+				DatabaseLease lease = acquire( "warm-up" );
+				leases.add( lease );
+				loader.accept( lease.getDatabase() );
+			}
+		}
+		finally {
+			for ( DatabaseLease lease : leases ) {
+				release( lease );
+			}
+			if ( current != null && !current.isReleased() ) {
+				current.getDatabase().activateOnCurrentThread();
+			}
+		}
 	}
 
-	@Override
-	public void remove() {
-		log.debugf( "drop database for thread %s", Thread.currentThread().getName() );
-		get().close();
-		super.remove();
+	/**
+	 * Get statistics of the pool
+	 *
+	 * @return statistics of the pool
+	 */
+	public OrientDBPoolStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Get lease of connection of the transaction, that the current thread works with. Other threads can complete the
+	 * transaction, so the lease is looked up by identifier of the transaction.
+	 *
+	 * @return lease or {@code null} if the thread does not work with a transaction or the transaction is completed
+	 */
+	private DatabaseLease getTransactionLease() {
+		Object transactionId = currentTransaction.get();
+		if ( transactionId == null ) {
+			return null;
+		}
+		DatabaseLease lease = transactionDatabases.get( transactionId );
+		if ( lease == null || lease.isReleased() ) {
+			currentTransaction.remove();
+			return null;
+		}
+		return lease;
+	}
+
+	private DatabaseLease acquire(String owner) {
+		long start = System.nanoTime();
+		ODatabaseDocument database;
+		try {
+			database = orientDBPool.acquire();
+		}
+		catch (OAcquireTimeoutException e) {
+			statistics.acquireTimedOut();
+			throw e;
+		}
+		catch (RuntimeException e) {
+			statistics.acquireFailed();
+			throw e;
+		}
+		DatabaseLease lease = new DatabaseLease( database );
+		statistics.acquired( lease, owner, System.nanoTime() - start );
+		return lease;
 	}
 
 }
@@ -0,0 +1,85 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.connection;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+
+/**
+ * Lease of connection from the pool.
+ * <p>
+ * The pool reuses instances of connections, so state of the connection ({@link ODatabaseDocument#isClosed()}) does
+ * not show who owns it. The lease is marked as released once, when the connection is returned to the pool (by any
+ * thread). After that the owner of the lease must acquire new connection.
+ * </p>
+ * <p>
+ * Several transactions of one thread (sessions used one after the other or nested) share the connection of the
+ * thread. Each of them is counted as user of the lease, so the connection is released by the last one.
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class DatabaseLease {
+
+	private final ODatabaseDocument database;
+	private final AtomicBoolean released = new AtomicBoolean();
+	private final AtomicInteger users = new AtomicInteger();
+
+	/**
+	 * Contractor
+	 *
+	 * @param database acquired connection
+	 */
+	DatabaseLease(ODatabaseDocument database) {
+		this.database = database;
+	}
+
+	public ODatabaseDocument getDatabase() {
+		return database;
+	}
+
+	/**
+	 * @return true if the connection is returned to the pool
+	 */
+	public boolean isReleased() {
+		return released.get();
+	}
+
+	/**
+	 * @return true if a transaction uses the connection
+	 */
+	public boolean isUsed() {
+		return users.get() > 0;
+	}
+
+	/**
+	 * Count new user (transaction) of the connection
+	 */
+	void retain() {
+		users.incrementAndGet();
+	}
+
+	/**
+	 * Remove user (transaction) of the connection
+	 *
+	 * @return true if the connection has no more users
+	 */
+	boolean releaseUser() {
+		return users.updateAndGet( count -> count > 0 ? count - 1 : 0 ) == 0;
+	}
+
+	/**
+	 * Mark the lease as released
+	 *
+	 * @return true if the lease was not released before
+	 */
+	boolean markReleased() {
+		return released.compareAndSet( false, true );
+	}
+}
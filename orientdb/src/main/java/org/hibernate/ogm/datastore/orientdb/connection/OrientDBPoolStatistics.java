@@ -0,0 +1,77 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.connection;
+
+import java.util.Map;
+
+import javax.management.MXBean;
+
+/**
+ * Statistics of the pool of connections (sessions) to OrientDB.
+ * <p>
+ * The statistics is available by
+ * {@link org.hibernate.ogm.datastore.orientdb.impl.OrientDBDatastoreProvider#getPoolStatistics()} and by JMX (see
+ * {@link org.hibernate.ogm.datastore.orientdb.OrientDBProperties#POOL_JMX_ENABLED}).
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+@MXBean
+public interface OrientDBPoolStatistics {
+
+	/**
+	 * @return max number of sessions in the pool
+	 */
+	int getPoolSize();
+
+	/**
+	 * @return number of sessions, that are acquired from the pool and not released yet
+	 */
+	int getSessionsInUse();
+
+	/**
+	 * @return number of successful acquisitions of sessions
+	 */
+	long getAcquireCount();
+
+	/**
+	 * @return number of failed acquisitions of sessions (the pool has no free session till timeout)
+	 */
+	long getAcquireTimeouts();
+
+	/**
+	 * @return number of acquisitions of sessions, that failed by other reasons than timeout (for example, the database
+	 * is not available)
+	 */
+	long getAcquireFailures();
+
+	/**
+	 * @return max time of waiting for session in milliseconds
+	 */
+	long getMaxAcquireTimeMillis();
+
+	/**
+	 * @return average time of waiting for session in milliseconds
+	 */
+	double getAverageAcquireTimeMillis();
+
+	/**
+	 * @return histogram of times of waiting for session. The key is the range of time, the value is number of
+	 * acquisitions.
+	 */
+	Map<String, Long> getAcquireTimeHistogram();
+
+	/**
+	 * @return ages of sessions in use in milliseconds. The key is the owner of session (the thread or the transaction).
+	 */
+	Map<String, Long> getSessionAgesMillis();
+
+	/**
+	 * Reset counters of acquisitions and the histogram
+	 */
+	void reset();
+}
@@ -0,0 +1,181 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.connection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collector of statistics of the pool. The collector is updated by {@link DatabaseHolder} on each acquisition and
+ * release of session. Updates do not take locks.
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class OrientDBPoolStatisticsImpl implements OrientDBPoolStatistics {
+
+	/**
+	 * upper bounds (in milliseconds) of ranges of the histogram. The last range has no upper bound.
+	 */
+	private static final long[] HISTOGRAM_BOUNDS = { 1, 5, 10, 50, 100, 500, 1000, 5000 };
+
+	private final int poolSize;
+	private final AtomicInteger sessionsInUse = new AtomicInteger();
+	private final AtomicLong acquireCount = new AtomicLong();
+	private final AtomicLong acquireTimeouts = new AtomicLong();
+	private final AtomicLong acquireFailures = new AtomicLong();
+	private final AtomicLong totalAcquireNanos = new AtomicLong();
+	private final AtomicLong maxAcquireNanos = new AtomicLong();
+	private final AtomicLongArray histogram = new AtomicLongArray( HISTOGRAM_BOUNDS.length + 1 );
+	private final ConcurrentMap<Object, SessionLease> leases = new ConcurrentHashMap<>();
+
+	/**
+	 * Contractor
+	 *
+	 * @param poolSize max number of sessions in the pool
+	 */
+	public OrientDBPoolStatisticsImpl(int poolSize) {
+		this.poolSize = poolSize;
+	}
+
+	/**
+	 * Register acquired session
+	 *
+	 * @param session the session
+	 * @param owner owner of the session (the thread or the transaction)
+	 * @param waitNanos time of waiting for the session in nanoseconds
+	 */
+	public void acquired(Object session, String owner, long waitNanos) {
+		sessionsInUse.incrementAndGet();
+		acquireCount.incrementAndGet();
+		totalAcquireNanos.addAndGet( waitNanos );
+		long max = maxAcquireNanos.get();
+		while ( waitNanos > max && !maxAcquireNanos.compareAndSet( max, waitNanos ) ) {
+			max = maxAcquireNanos.get();
+		}
+		histogram.incrementAndGet( histogramIndex( TimeUnit.NANOSECONDS.toMillis( waitNanos ) ) );
+		leases.put( session, new SessionLease( owner, System.currentTimeMillis() ) );
+	}
+
+	/**
+	 * Register acquisition of session, that failed because the pool has no free session till timeout
+	 */
+	public void acquireTimedOut() {
+		acquireTimeouts.incrementAndGet();
+	}
+
+	/**
+	 * Register acquisition of session, that failed by other reason than timeout
+	 */
+	public void acquireFailed() {
+		acquireFailures.incrementAndGet();
+	}
+
+	/**
+	 * Register released session
+	 *
+	 * @param session the session
+	 */
+	public void released(Object session) {
+		if ( leases.remove( session ) != null ) {
+			sessionsInUse.decrementAndGet();
+		}
+	}
+
+	private static int histogramIndex(long millis) {
+		for ( int i = 0; i < HISTOGRAM_BOUNDS.length; i++ ) {
+			if ( millis <= HISTOGRAM_BOUNDS[i] ) {
+				return i;
+			}
+		}
+		return HISTOGRAM_BOUNDS.length;
+	}
+
+	@Override
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	@Override
+	public int getSessionsInUse() {
+		return sessionsInUse.get();
+	}
+
+	@Override
+	public long getAcquireCount() {
+		return acquireCount.get();
+	}
+
+	@Override
+	public long getAcquireTimeouts() {
+		return acquireTimeouts.get();
+	}
+
+	@Override
+	public long getAcquireFailures() {
+		return acquireFailures.get();
+	}
+
+	@Override
+	public long getMaxAcquireTimeMillis() {
+		return TimeUnit.NANOSECONDS.toMillis( maxAcquireNanos.get() );
+	}
+
+	@Override
+	public double getAverageAcquireTimeMillis() {
+		long count = acquireCount.get();
+		return count == 0 ? 0 : totalAcquireNanos.get() / 1_000_000.0 / count;
+	}
+
+	@Override
+	public Map<String, Long> getAcquireTimeHistogram() {
+		Map<String, Long> result = new LinkedHashMap<>();
+		for ( int i = 0; i < HISTOGRAM_BOUNDS.length; i++ ) {
+			result.put( "<= " + HISTOGRAM_BOUNDS[i] + " ms", histogram.get( i ) );
+		}
+		result.put( "> " + HISTOGRAM_BOUNDS[HISTOGRAM_BOUNDS.length - 1] + " ms", histogram.get( HISTOGRAM_BOUNDS.length ) );
+		return result;
+	}
+
+	@Override
+	public Map<String, Long> getSessionAgesMillis() {
+		long now = System.currentTimeMillis();
+		Map<String, Long> result = new LinkedHashMap<>();
+		for ( SessionLease lease : leases.values() ) {
+			result.merge( lease.owner, now - lease.acquiredAt, Math::max );
+		}
+		return result;
+	}
+
+	@Override
+	public void reset() {
+		acquireCount.set( 0 );
+		acquireTimeouts.set( 0 );
+		acquireFailures.set( 0 );
+		totalAcquireNanos.set( 0 );
+		maxAcquireNanos.set( 0 );
+		for ( int i = 0; i < histogram.length(); i++ ) {
+			histogram.set( i, 0 );
+		}
+	}
+
+	private static class SessionLease {
+
+		private final String owner;
+		private final long acquiredAt;
+
+		private SessionLease(String owner, long acquiredAt) {
+			this.owner = owner;
+			this.acquiredAt = acquiredAt;
+		}
+	}
+}
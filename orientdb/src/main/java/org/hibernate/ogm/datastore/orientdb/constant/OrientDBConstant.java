@@ -68,11 +68,12 @@ public class OrientDBConstant {
 	public static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd";
 	public static final String DEFAULT_DATETIME_FORMAT = "yyyy-MM-dd HH:mm:ss.SSS z";
 
-	public static final String GET_TABLE_SEQ_VALUE_FUNC = "getTableSeqValue".toUpperCase();
-	@Deprecated
-	public static final String EXECUTE_QUERY_FUNC = "executeQuery".toUpperCase();
-	@Deprecated
-	public static final String GET_NEXT_SEQ_VALUE_FUNC = "getNextSeqValue".toUpperCase();
+	public static final int DEFAULT_SEQUENCE_BLOCK_SIZE = 50;
+	public static final int DEFAULT_SEQUENCE_CACHE_SIZE = 20;
+	public static final int DEFAULT_RETRY_INITIAL_BACKOFF = 10;
+	public static final int DEFAULT_RETRY_MAX_BACKOFF = 1000;
+	public static final int DEFAULT_BULK_CHUNK_SIZE = 1000;
+	public static final int DEFAULT_SLOW_QUERY_THRESHOLD = -1;
 
 	static {
 		Set<String> set = new HashSet<>();
@@ -0,0 +1,122 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.dialect.impl;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
+import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBMetrics;
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBOperation;
+import org.hibernate.ogm.datastore.orientdb.utils.NativeQuerySettings;
+import org.hibernate.ogm.datastore.orientdb.utils.NativeQueryUtil;
+import org.hibernate.ogm.dialect.query.spi.ClosableIterator;
+import org.hibernate.ogm.model.spi.Tuple;
+import org.hibernate.ogm.model.spi.Tuple.SnapshotType;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+
+/**
+ * Closable iterator through open {@link OResultSet}.
+ * <p>
+ * Documents are pulled from the result set lazily, so the result is never loaded to memory completely. The result set
+ * is closed by {@link #close()}.
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class OResultSetTupleIterator implements ClosableIterator<Tuple> {
+
+	private static final Log log = LoggerFactory.getLogger();
+
+	private final OResultSet resultSet;
+	private final NativeQuerySettings settings;
+	private final OrientDBMetrics metrics;
+	private final String className;
+	private final long start;
+	private final ODatabaseDocument db;
+	private final String query;
+	private final Map<String, Object> queryParams;
+	private ODocument nextDocument;
+	private long rows;
+	private long bytes;
+
+	public OResultSetTupleIterator(OResultSet resultSet) {
+		this( resultSet, NativeQuerySettings.DISABLED, null, 0L, null, null, null );
+	}
+
+	/**
+	 * Contractor
+	 *
+	 * @param resultSet open result set
+	 * @param settings settings of native queries. The query is recorded by metrics as
+	 * {@link OrientDBOperation#BACKEND_QUERY} and is checked by log of slow queries by {@link #close()}.
+	 * @param className name of class of the query. Can be {@code null}.
+	 * @param start start of the query (by {@link System#nanoTime()})
+	 * @param db instance of OrientDB. It is used for explain of slow query. Can be {@code null}.
+	 * @param query template of the query
+	 * @param queryParams parameters of the query
+	 */
+	public OResultSetTupleIterator(OResultSet resultSet, NativeQuerySettings settings, String className, long start,
+			ODatabaseDocument db, String query, Map<String, Object> queryParams) {
+		this.resultSet = resultSet;
+		this.settings = settings;
+		this.metrics = settings.getMetrics();
+		this.className = className;
+		this.start = start;
+		this.db = db;
+		this.query = query;
+		this.queryParams = queryParams;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while ( nextDocument == null && resultSet.hasNext() ) {
+			// projections are converted to documents too
+			OResult result = resultSet.next();
+			nextDocument = (ODocument) result.toElement();
+		}
+		return nextDocument != null;
+	}
+
+	@Override
+	public Tuple next() {
+		if ( !hasNext() ) {
+			throw new NoSuchElementException();
+		}
+		ODocument document = nextDocument;
+		nextDocument = null;
+		rows++;
+		if ( metrics.isEnabled() ) {
+			bytes += document.getSize();
+		}
+		return new Tuple( new OrientDBTupleSnapshot( document ), SnapshotType.UPDATE );
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException( "Not supported yet." );
+	}
+
+	@Override
+	public void close() {
+		log.debugf( "close result set" );
+		resultSet.close();
+		if ( settings.isMeasured() ) {
+			long duration = System.nanoTime() - start;
+			if ( metrics.isEnabled() ) {
+				metrics.record( OrientDBOperation.BACKEND_QUERY, className, duration, rows, bytes );
+			}
+			// time of the query includes reading of the result
+			NativeQueryUtil.checkSlowQuery( settings, db, query, queryParams, rows, duration );
+		}
+	}
+}
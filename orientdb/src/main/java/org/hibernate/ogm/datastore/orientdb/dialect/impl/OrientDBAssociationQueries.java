@@ -6,17 +6,23 @@
  */
 package org.hibernate.ogm.datastore.orientdb.dialect.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.hibernate.AssertionFailure;
 
+import org.hibernate.ogm.datastore.orientdb.dto.GenerationResult;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
 import org.hibernate.ogm.datastore.orientdb.utils.EntityKeyUtil;
+import org.hibernate.ogm.datastore.orientdb.utils.NativeQuerySettings;
 import org.hibernate.ogm.datastore.orientdb.utils.NativeQueryUtil;
 import org.hibernate.ogm.dialect.spi.AssociationContext;
 import org.hibernate.ogm.model.key.spi.AssociationKey;
@@ -38,7 +44,9 @@ public class OrientDBAssociationQueries extends QueriesBase {
 	private final EntityKeyMetadata ownerEntityKeyMetadata;
 	private final AssociationKeyMetadata associationKeyMetadata;
 
-	public OrientDBAssociationQueries(EntityKeyMetadata ownerEntityKeyMetadata, AssociationKeyMetadata associationKeyMetadata) {
+	public OrientDBAssociationQueries(EntityKeyMetadata ownerEntityKeyMetadata, AssociationKeyMetadata associationKeyMetadata,
+			NativeQuerySettings settings) {
+		super( settings );
 		this.ownerEntityKeyMetadata = ownerEntityKeyMetadata;
 		this.associationKeyMetadata = associationKeyMetadata;
 		log.debugf( "ownerEntityKeyMetadata: %s ;associationKeyMetadata: %s ",
@@ -46,6 +54,18 @@ public class OrientDBAssociationQueries extends QueriesBase {
 	}
 
 	public void removeAssociation(ODatabaseDocument db, AssociationKey associationKey, AssociationContext associationContext) {
+		ODocument removeDocs = NativeQueryUtil.executeNonIdempotentQuery( settings, db, generateRemoveAssociationQuery( associationKey, associationContext ) );
+		log.debugf( "removeAssociation: removed associations: %s ", removeDocs.toJSON() );
+	}
+
+	/**
+	 * Generate the query for removing all rows of the association
+	 *
+	 * @param associationKey association key
+	 * @param associationContext context
+	 * @return the query with parameters
+	 */
+	public GenerationResult generateRemoveAssociationQuery(AssociationKey associationKey, AssociationContext associationContext) {
 		log.debugf( "removeAssociation: %s ;associationKey: %s;", associationKey );
 		log.debugf( "removeAssociation: AssociationKey: %s ; AssociationContext: %s", associationKey, associationContext );
 		log.debugf( "removeAssociation: getAssociationKind: %s", associationKey.getMetadata().getAssociationKind() );
@@ -59,43 +79,114 @@ public class OrientDBAssociationQueries extends QueriesBase {
 			case EMBEDDED_COLLECTION:
 				deleteQuery.append( associationKey.getTable() ).append( " WHERE " );
 				columnName = associationKey.getColumnNames()[0];
-				deleteQuery.append( columnName ).append( "=" );
-				EntityKeyUtil.setFieldValue( deleteQuery, associationKey.getColumnValues()[0] );
+				deleteQuery.append( columnName ).append( " = ?" );
 				break;
 			case ASSOCIATION:
 				String tableName = associationKey.getTable();
 				log.debugf( "removeAssociation:getColumnNames:%s", Arrays.asList( associationKey.getColumnNames() ) );
 				columnName = associationKey.getColumnNames()[0];
 				deleteQuery.append( tableName ).append( " WHERE " );
-				deleteQuery.append( columnName ).append( "=" );
-				EntityKeyUtil.setFieldValue( deleteQuery, associationKey.getColumnValues()[0] );
+				deleteQuery.append( columnName ).append( " = ?" );
 				break;
 			default:
 				throw new AssertionFailure( "Unrecognized associationKind: " + associationKey.getMetadata().getAssociationKind() );
 		}
 
 		log.debugf( "removeAssociation: query for loading document for remove: %s ", deleteQuery );
-		ODocument removeDocs = NativeQueryUtil.executeNonIdempotentQuery( db, deleteQuery );
-		log.debugf( "removeAssociation: removed associations: %s ", removeDocs.toJSON() );
+		return new GenerationResult( deleteQuery.toString(),
+				Collections.singletonList( EntityKeyUtil.toParameterValue( associationKey.getColumnValues()[0] ) ) );
 	}
 
 	public void removeAssociationRow(ODatabaseDocument db, AssociationKey associationKey, RowKey rowKey) {
+		ODocument removeDocs = NativeQueryUtil.executeNonIdempotentQuery( settings, db, generateRemoveAssociationRowQuery( associationKey, rowKey ) );
+		log.debugf( "removeAssociation: removed rows: %s ", removeDocs.toJSON() );
+	}
+
+	/**
+	 * Generate the query for removing the row of the association
+	 *
+	 * @param associationKey association key
+	 * @param rowKey key of the row
+	 * @return the query with parameters
+	 */
+	public GenerationResult generateRemoveAssociationRowQuery(AssociationKey associationKey, RowKey rowKey) {
 		log.debugf( "removeAssociationRow: associationKey: %s; RowKey:%s ", associationKey, rowKey );
 		StringBuilder loadingDocsForDelete = new StringBuilder( 100 );
+		List<Object> params = new ArrayList<>( rowKey.getColumnNames().length );
 		loadingDocsForDelete.append( "DELETE FROM " ).append( associationKey.getTable() ).append( " WHERE " );
 		for ( int i = 0; i < rowKey.getColumnNames().length; i++ ) {
 			String columnName = rowKey.getColumnNames()[i];
-			Object columnValue = rowKey.getColumnValues()[i];
-			loadingDocsForDelete.append( columnName ).append( "=" );
-			EntityKeyUtil.setFieldValue( loadingDocsForDelete, columnValue );
+			params.add( EntityKeyUtil.toParameterValue( rowKey.getColumnValues()[i] ) );
+			loadingDocsForDelete.append( columnName ).append( " = ?" );
 			if ( i < rowKey.getColumnNames().length - 1 ) {
 				loadingDocsForDelete.append( " AND " );
 			}
 		}
 		log.debugf( "removeAssociationRow: delete query: %s; ", loadingDocsForDelete );
-		ODocument removeDocs = NativeQueryUtil.executeNonIdempotentQuery( db, loadingDocsForDelete );
-		log.debugf( "removeAssociation: removed rows: %s ", removeDocs.toJSON() );
+		return new GenerationResult( loadingDocsForDelete.toString(), params );
+	}
+
+	/**
+	 * Load keys of all stored rows of the association by one query. The key of the row is built by
+	 * {@link #toRelationshipKey(AssociationKey, RowKey)}, so stored rows can be found without query for each row.
+	 *
+	 * @param db current instance of db
+	 * @param associationKey association key
+	 * @param rowKey key of any row of the association. Its columns identify rows if the association has neither
+	 * index columns nor row key columns.
+	 * @return keys of stored rows
+	 */
+	public Set<List<Object>> findRelationshipKeys(ODatabaseDocument db, AssociationKey associationKey, RowKey rowKey) {
+		StringBuilder queryBuilder = new StringBuilder( 100 );
+		Object[] params = new Object[associationKey.getColumnNames().length];
+		queryBuilder.append( "SELECT FROM " ).append( associationKey.getTable() ).append( " WHERE " );
+		for ( int i = 0; i < associationKey.getColumnNames().length; i++ ) {
+			if ( i > 0 ) {
+				queryBuilder.append( " AND " );
+			}
+			queryBuilder.append( associationKey.getColumnNames()[i] ).append( " = ?" );
+			params[i] = EntityKeyUtil.toParameterValue( associationKey.getColumnValues()[i] );
+		}
+		log.debugf( "findRelationshipKeys: query: %s", queryBuilder );
+		String[] identityColumnNames = getRelationshipIdentityColumnNames( associationKey, rowKey );
+		Set<List<Object>> relationshipKeys = new HashSet<>();
+		for ( ODocument document : NativeQueryUtil.executeIdempotentQueryWithParams( settings, db, queryBuilder.toString(), params ) ) {
+			Object[] values = new Object[identityColumnNames.length];
+			for ( int i = 0; i < identityColumnNames.length; i++ ) {
+				values[i] = document.field( identityColumnNames[i] );
+			}
+			relationshipKeys.add( EntityKeyUtil.toLookupKey( values ) );
+		}
+		log.debugf( "findRelationshipKeys: found: %d", relationshipKeys.size() );
+		return relationshipKeys;
+	}
 
+	/**
+	 * Build the key of the row of the association. Like {@link #findRelationship(ODatabaseDocument, AssociationKey, RowKey)},
+	 * the row is identified by index columns (if any) or by columns of the row key. Values are compared as typed
+	 * values (see {@link EntityKeyUtil#toLookupKey(Object...)}).
+	 *
+	 * @param associationKey association key
+	 * @param rowKey key of the row
+	 * @return key of the row
+	 */
+	public List<Object> toRelationshipKey(AssociationKey associationKey, RowKey rowKey) {
+		String[] identityColumnNames = getRelationshipIdentityColumnNames( associationKey, rowKey );
+		Object[] values = new Object[identityColumnNames.length];
+		for ( int i = 0; i < identityColumnNames.length; i++ ) {
+			values[i] = rowKey.getColumnValue( identityColumnNames[i] );
+		}
+		return EntityKeyUtil.toLookupKey( values );
+	}
+
+	private String[] getRelationshipIdentityColumnNames(AssociationKey associationKey, RowKey rowKey) {
+		String[] indexColumnNames = associationKey.getMetadata().getRowKeyIndexColumnNames();
+		if ( indexColumnNames.length > 0 ) {
+			return indexColumnNames;
+		}
+		String[] rowKeyColumnNames = associationKey.getMetadata().getRowKeyColumnNames();
+		// without metadata all rows would have the same (empty) key, so all columns of the row key are used
+		return rowKeyColumnNames.length > 0 ? rowKeyColumnNames : rowKey.getColumnNames();
 	}
 
 	public List<Map<String, Object>> findRelationship(ODatabaseDocument db, AssociationKey associationKey, RowKey rowKey) {
@@ -142,6 +233,7 @@ public class OrientDBAssociationQueries extends QueriesBase {
 			log.debugf( "findRelationship: key %s; value: %s", key, value );
 		}
 		StringBuilder queryBuilder = new StringBuilder( 100 );
+		Object[] params = new Object[relationshipValues.size()];
 		queryBuilder.append( "SELECT FROM " ).append( associationKey.getTable() ).append( " WHERE " );
 		int index = 0;
 		for ( Map.Entry<String, Object> entry : relationshipValues.entrySet() ) {
@@ -150,12 +242,12 @@ public class OrientDBAssociationQueries extends QueriesBase {
 			if ( index > 0 ) {
 				queryBuilder.append( " AND " );
 			}
-			queryBuilder.append( key ).append( "=" );
-			EntityKeyUtil.setFieldValue( queryBuilder, value );
+			queryBuilder.append( key ).append( " = ?" );
+			params[index] = EntityKeyUtil.toParameterValue( value );
 			index++;
 		}
 		log.debugf( "findRelationship: queryBuilder: %s", queryBuilder );
-		List<Map<String, Object>> dbValues = NativeQueryUtil.executeIdempotentQuery( db, queryBuilder )
+		List<Map<String, Object>> dbValues = NativeQueryUtil.executeIdempotentQueryWithParams( settings, db, queryBuilder.toString(), params )
 				.stream().map( ( ODocument doc ) -> {
 					return doc.toMap();
 				} )
@@ -6,9 +6,13 @@
  */
 package org.hibernate.ogm.datastore.orientdb.dialect.impl;
 
-import java.util.List;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.hibernate.ogm.datastore.orientdb.dto.GenerationResult;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
 import org.hibernate.ogm.datastore.orientdb.utils.EntityKeyUtil;
@@ -18,7 +22,12 @@ import org.hibernate.ogm.model.key.spi.EntityKey;
 import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
 
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.index.OCompositeKey;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import org.hibernate.ogm.datastore.orientdb.utils.NativeQuerySettings;
 import org.hibernate.ogm.datastore.orientdb.utils.NativeQueryUtil;
 
 /**
@@ -29,24 +38,38 @@ import org.hibernate.ogm.datastore.orientdb.utils.NativeQueryUtil;
 public class OrientDBEntityQueries extends QueriesBase {
 
 	private static Log log = LoggerFactory.getLogger();
+	private static final int MULTIGET_CHUNK_SIZE = 100;
 
 	private final EntityKeyMetadata entityKeyMetadata;
+	private final String findEntityQuery;
+	private final String removeEntityQuery;
+	private volatile int[] primaryKeyIndexPositions;
+	private volatile String primaryKeyIndexName;
 
 	/**
 	 * Contractor
 	 *
 	 * @param entityKeyMetadata metadata of entity keys
+	 * @param settings settings of execution of the queries
 	 */
-	public OrientDBEntityQueries(EntityKeyMetadata entityKeyMetadata) {
+	public OrientDBEntityQueries(EntityKeyMetadata entityKeyMetadata, NativeQuerySettings settings) {
+		super( settings );
 		this.entityKeyMetadata = entityKeyMetadata;
 		for ( int i = 0; i < entityKeyMetadata.getColumnNames().length; i++ ) {
 			String columnName = entityKeyMetadata.getColumnNames()[i];
 			log.debugf( "column number: %d ; column name: %s", i, columnName );
 		}
+		String primaryKeyPredicate = EntityKeyUtil.generatePrimaryKeyPredicate( entityKeyMetadata.getColumnNames() );
+		this.findEntityQuery = "SELECT FROM " + entityKeyMetadata.getTable() + " WHERE " + primaryKeyPredicate;
+		this.removeEntityQuery = "DELETE FROM " + entityKeyMetadata.getTable() + " WHERE " + primaryKeyPredicate;
 	}
 
 	/**
 	 * Find the node corresponding to the entity key.
+	 * <p>
+	 * The key is resolved through the unique index of primary key directly to the record id. If the class has not
+	 * the index, the entity is searched by SQL query.
+	 * </p>
 	 *
 	 * @param db current instance of db
 	 * @param entityKey entity key
@@ -54,17 +77,157 @@ public class OrientDBEntityQueries extends QueriesBase {
 	 */
 
 	public ODocument findEntity(ODatabaseDocument db, EntityKey entityKey) {
-		StringBuilder query = new StringBuilder( "SELECT FROM " );
+		OIndex<?> primaryKeyIndex = getPrimaryKeyIndex( db );
+		if ( primaryKeyIndex != null ) {
+			return findEntityByIndex( db, primaryKeyIndex, entityKey );
+		}
 		// search by business key
-		log.debugf( "column names: %s", Arrays.asList( entityKey.getColumnNames() ) );
-		query.append( entityKey.getTable() ).append( " WHERE " ).append( EntityKeyUtil.generatePrimaryKeyPredicate( entityKey ) );
-		log.debugf( "find entity query: %s", query.toString() );
-		List<ODocument> documents = NativeQueryUtil.executeIdempotentQuery( db, query );
+		log.debugf( "find entity query: %s", findEntityQuery );
+		List<ODocument> documents = NativeQueryUtil.executeIdempotentQueryWithParams( settings, db, findEntityQuery,
+				EntityKeyUtil.generatePrimaryKeyParams( entityKey ) );
 		if ( documents.isEmpty() ) {
 			log.debugf( " entity by primary key %s not found!", entityKey );
 			return null;
 		}
-		return documents.isEmpty() ? null : documents.get( 0 );
+		return documents.get( 0 );
+	}
+
+	private ODocument findEntityByIndex(ODatabaseDocument db, OIndex<?> primaryKeyIndex, EntityKey entityKey) {
+		Object[] keyValues = EntityKeyUtil.generatePrimaryKeyParams( entityKey );
+		Object indexKey;
+		if ( keyValues.length == 1 ) {
+			indexKey = primaryKeyIndex.getDefinition().createValue( keyValues[0] );
+		}
+		else {
+			// values of composite key (like IdClass) in order of fields of the index
+			List<Object> compositeKeyValues = new ArrayList<>( keyValues.length );
+			for ( int position : primaryKeyIndexPositions ) {
+				compositeKeyValues.add( keyValues[position] );
+			}
+			OCompositeKey compositeKey = (OCompositeKey) primaryKeyIndex.getDefinition().createValue( compositeKeyValues );
+			indexKey = compositeKey;
+		}
+		Object value = primaryKeyIndex.get( indexKey );
+		log.debugf( "findEntityByIndex: index: %s; key: %s; value: %s", primaryKeyIndexName, indexKey, value );
+		if ( value == null ) {
+			log.debugf( " entity by primary key %s not found!", entityKey );
+			return null;
+		}
+		return db.load( ( (OIdentifiable) value ).getIdentity() );
+	}
+
+	/**
+	 * Get the unique index of primary key (created by schema definer). The name of the index is resolved once.
+	 *
+	 * @param db current instance of db
+	 * @return the index or null if the class has not the index
+	 */
+	private OIndex<?> getPrimaryKeyIndex(ODatabaseDocument db) {
+		OClass oClass = db.getMetadata().getSchema().getClass( entityKeyMetadata.getTable() );
+		if ( oClass == null ) {
+			return null;
+		}
+		if ( primaryKeyIndexName != null ) {
+			return oClass.getClassIndex( primaryKeyIndexName );
+		}
+		String[] keyColumnNames = entityKeyMetadata.getColumnNames();
+		for ( OIndex<?> index : oClass.getIndexes() ) {
+			if ( index.getType().startsWith( OClass.INDEX_TYPE.UNIQUE.name() ) && EntityKeyUtil.isPrimaryKeyIndex( index, keyColumnNames ) ) {
+				List<String> indexFields = index.getDefinition().getFields();
+				int[] positions = new int[indexFields.size()];
+				for ( int i = 0; i < keyColumnNames.length; i++ ) {
+					positions[indexFields.indexOf( EntityKeyUtil.getPrimaryKeyFieldName( keyColumnNames[i] ) )] = i;
+				}
+				primaryKeyIndexPositions = positions;
+				primaryKeyIndexName = index.getName();
+				log.debugf( "primary key index of class %s: %s", entityKeyMetadata.getTable(), primaryKeyIndexName );
+				return index;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Find the nodes corresponding to the entity keys by one query. Primary key with one column is searched by
+	 * {@code IN} predicate, composite primary key is searched by {@code OR} predicates (by chunks of
+	 * {@value #MULTIGET_CHUNK_SIZE} keys).
+	 *
+	 * @param db current instance of db
+	 * @param entityKeys entity keys of one entity type
+	 * @return the corresponding nodes in order of the keys. If a node is not found, the element is null.
+	 */
+	public List<ODocument> findEntities(ODatabaseDocument db, EntityKey[] entityKeys) {
+		String[] keyColumnNames = entityKeyMetadata.getColumnNames();
+		String[] keyFieldNames = new String[keyColumnNames.length];
+		for ( int i = 0; i < keyColumnNames.length; i++ ) {
+			keyFieldNames[i] = EntityKeyUtil.getPrimaryKeyFieldName( keyColumnNames[i] );
+		}
+		Map<List<Object>, ODocument> foundDocuments = new HashMap<>( entityKeys.length * 2 );
+		if ( keyFieldNames.length == 1 ) {
+			List<Object> keyValues = new ArrayList<>( entityKeys.length );
+			for ( EntityKey entityKey : entityKeys ) {
+				keyValues.add( EntityKeyUtil.toParameterValue( entityKey.getColumnValues()[0] ) );
+			}
+			String query = "SELECT FROM " + entityKeyMetadata.getTable() + " WHERE " + keyFieldNames[0] + " IN ?";
+			log.debugf( "find entities query: %s; keys: %d", query, keyValues.size() );
+			collectDocuments( NativeQueryUtil.executeIdempotentQueryWithParams( settings, db, query, keyValues ), keyFieldNames, foundDocuments );
+		}
+		else {
+			for ( int chunkStart = 0; chunkStart < entityKeys.length; chunkStart += MULTIGET_CHUNK_SIZE ) {
+				int chunkEnd = Math.min( chunkStart + MULTIGET_CHUNK_SIZE, entityKeys.length );
+				StringBuilder query = new StringBuilder( 100 );
+				List<Object> params = new ArrayList<>( ( chunkEnd - chunkStart ) * keyFieldNames.length );
+				query.append( "SELECT FROM " ).append( entityKeyMetadata.getTable() ).append( " WHERE " );
+				for ( int i = chunkStart; i < chunkEnd; i++ ) {
+					if ( i > chunkStart ) {
+						query.append( " OR " );
+					}
+					query.append( "(" ).append( EntityKeyUtil.generatePrimaryKeyPredicate( keyColumnNames ) ).append( ")" );
+					params.addAll( Arrays.asList( EntityKeyUtil.generatePrimaryKeyParams( entityKeys[i] ) ) );
+				}
+				log.debugf( "find entities query: %s", query );
+				collectDocuments( NativeQueryUtil.executeIdempotentQueryWithParams( settings, db, query.toString(), params.toArray() ), keyFieldNames,
+						foundDocuments );
+			}
+		}
+		List<ODocument> documents = new ArrayList<>( entityKeys.length );
+		for ( EntityKey entityKey : entityKeys ) {
+			documents.add( foundDocuments.get( EntityKeyUtil.toLookupKey( entityKey.getColumnValues() ) ) );
+		}
+		return documents;
+	}
+
+	private static void collectDocuments(List<ODocument> documents, String[] keyFieldNames, Map<List<Object>, ODocument> foundDocuments) {
+		for ( ODocument document : documents ) {
+			Object[] values = new Object[keyFieldNames.length];
+			for ( int i = 0; i < keyFieldNames.length; i++ ) {
+				values[i] = document.field( keyFieldNames[i] );
+			}
+			// loaded values and values of keys can have different java types
+			foundDocuments.put( EntityKeyUtil.toLookupKey( values ), document );
+		}
+	}
+
+	/**
+	 * Remove the document corresponding to the entity key.
+	 *
+	 * @param db current instance of db
+	 * @param entityKey entity key
+	 * @return result of the query
+	 */
+	public ODocument removeEntity(ODatabaseDocument db, EntityKey entityKey) {
+		log.debugf( "remove entity query: %s", removeEntityQuery );
+		return NativeQueryUtil.executeNonIdempotentQuery( settings, db, generateRemoveEntityQuery( entityKey ) );
+	}
+
+	/**
+	 * Generate the query for removing the document corresponding to the entity key.
+	 *
+	 * @param entityKey entity key
+	 * @return the query with parameters
+	 */
+	public GenerationResult generateRemoveEntityQuery(EntityKey entityKey) {
+		return new GenerationResult( removeEntityQuery, Arrays.asList( EntityKeyUtil.generatePrimaryKeyParams( entityKey ) ) );
 	}
 
 	/**
@@ -81,12 +244,12 @@ public class OrientDBEntityQueries extends QueriesBase {
 		log.debugf( "findAssociation: associationKeyMetadata: %s", associationKey.getMetadata() );
 
 		StringBuilder query = new StringBuilder( 100 );
+		Object[] params = new Object[associationKey.getColumnNames().length];
 		query.append( "SELECT FROM " ).append( associationKey.getTable() ).append( " WHERE " );
 		for ( int i = 0; i < associationKey.getColumnNames().length; i++ ) {
 			String name = associationKey.getColumnNames()[i];
-			Object value = associationKey.getColumnValues()[i];
-			query.append( name ).append( "=" );
-			EntityKeyUtil.setFieldValue( query, value );
+			params[i] = EntityKeyUtil.toParameterValue( associationKey.getColumnValues()[i] );
+			query.append( name ).append( " = ?" );
 			if ( associationKey.getColumnNames().length - i > 1 ) {
 				query.append( " and " );
 			}
@@ -102,7 +265,7 @@ public class OrientDBEntityQueries extends QueriesBase {
 		}
 
 		log.debugf( "findAssociation: query: %s", query );
-		List<ODocument> documents = NativeQueryUtil.executeIdempotentQuery( db, query );
+		List<ODocument> documents = NativeQueryUtil.executeIdempotentQueryWithParams( settings, db, query.toString(), params );
 		log.debugf( "findAssociation: rows :  %d", documents.size() );
 		return documents;
 	}
@@ -6,6 +6,8 @@
  */
 package org.hibernate.ogm.datastore.orientdb.dialect.impl;
 
+import org.hibernate.ogm.datastore.orientdb.utils.NativeQuerySettings;
+
 /**
  * Provides common functionality required for query creation.
  *
@@ -13,4 +15,14 @@ package org.hibernate.ogm.datastore.orientdb.dialect.impl;
  */
 public class QueriesBase {
 
+	protected final NativeQuerySettings settings;
+
+	/**
+	 * Contractor
+	 *
+	 * @param settings settings of execution of the queries
+	 */
+	protected QueriesBase(NativeQuerySettings settings) {
+		this.settings = settings;
+	}
 }
@@ -6,6 +6,9 @@
  */
 package org.hibernate.ogm.datastore.orientdb.dto;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * The class is presentation of generation of query
  *
@@ -18,17 +21,41 @@ public class GenerationResult {
 	 */
 	private String executionQuery;
 
+	/**
+	 * Values of positional parameters ('?') of the query
+	 */
+	private List<Object> preparedStatementParams;
+
 	/**
 	 * Contractor
 	 *
 	 * @param executionQuery string presentation of query
 	 */
 	public GenerationResult(String executionQuery) {
+		this( executionQuery, Collections.emptyList() );
+	}
+
+	/**
+	 * Contractor
+	 *
+	 * @param executionQuery string presentation of query (template with positional parameters)
+	 * @param preparedStatementParams values of positional parameters in order of their appearance in the query
+	 */
+	public GenerationResult(String executionQuery, List<Object> preparedStatementParams) {
 		this.executionQuery = executionQuery;
+		this.preparedStatementParams = preparedStatementParams;
 	}
 
 	public String getExecutionQuery() {
 		return executionQuery;
 	}
 
+	public List<Object> getPreparedStatementParams() {
+		return preparedStatementParams;
+	}
+
+	public Object[] getPreparedStatementParamsArray() {
+		return preparedStatementParams.toArray();
+	}
+
 }
@@ -6,26 +6,48 @@
  */
 package org.hibernate.ogm.datastore.orientdb.impl;
 
+import java.lang.management.ManagementFactory;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.hibernate.HibernateException;
 import org.hibernate.ogm.datastore.orientdb.OrientDBDialect;
 import org.hibernate.ogm.datastore.orientdb.OrientDBProperties;
+import org.hibernate.ogm.datastore.orientdb.OrientDBProperties.ConnectionBindingEnum;
 import org.hibernate.ogm.datastore.orientdb.OrientDBProperties.DatabaseTypeEnum;
 import org.hibernate.ogm.datastore.orientdb.OrientDBProperties.StorageModeEnum;
+import org.hibernate.ogm.datastore.orientdb.OrientDBProperties.WriteModeEnum;
+import org.hibernate.ogm.datastore.orientdb.bulk.OrientDBBulkLoader;
 import org.hibernate.ogm.datastore.orientdb.connection.DatabaseHolder;
+import org.hibernate.ogm.datastore.orientdb.connection.DatabaseLease;
+import org.hibernate.ogm.datastore.orientdb.connection.OrientDBPoolStatistics;
 import org.hibernate.ogm.datastore.orientdb.constant.OrientDBConstant;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBMetrics;
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBOperationStatistics;
+import org.hibernate.ogm.datastore.orientdb.metrics.impl.DisabledMetrics;
 import org.hibernate.ogm.datastore.orientdb.schema.OrientDBDocumentSchemaDefiner;
+import org.hibernate.ogm.datastore.orientdb.sequence.impl.SequenceAllocators;
+import org.hibernate.ogm.datastore.orientdb.transaction.impl.ConflictRetryPolicy;
+import org.hibernate.ogm.datastore.orientdb.transaction.impl.OrientDBConflictStatisticsImpl;
 import org.hibernate.ogm.datastore.orientdb.transaction.impl.OrientDbTransactionCoordinatorBuilder;
 import org.hibernate.ogm.datastore.orientdb.utils.FormatterUtil;
+import org.hibernate.ogm.datastore.orientdb.utils.NativeQuerySettings;
+import org.hibernate.ogm.datastore.orientdb.utils.NativeQueryUtil;
 import org.hibernate.ogm.datastore.orientdb.utils.PropertyReaderUtil;
 import org.hibernate.ogm.datastore.spi.BaseDatastoreProvider;
 import org.hibernate.ogm.datastore.spi.SchemaDefiner;
 import org.hibernate.ogm.dialect.spi.GridDialect;
+import org.hibernate.ogm.dialect.spi.TransactionContext;
 import org.hibernate.ogm.util.configurationreader.spi.ConfigurationPropertyReader;
 import org.hibernate.resource.transaction.spi.TransactionCoordinatorBuilder;
 import org.hibernate.service.spi.Configurable;
@@ -35,6 +57,11 @@ import org.hibernate.service.spi.Startable;
 import org.hibernate.service.spi.Stoppable;
 
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.tx.OTransaction;
+import com.orientechnologies.orient.core.tx.OTransaction.TXTYPE;
 
 /**
  * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
@@ -45,6 +72,17 @@ public class OrientDBDatastoreProvider extends BaseDatastoreProvider implements
 	private static Log log = LoggerFactory.getLogger();
 	private DatabaseHolder databaseHolder;
 	private ConfigurationPropertyReader propertyReader;
+	private WriteModeEnum writeMode = WriteModeEnum.SQL;
+	private SequenceAllocators sequenceAllocators;
+	private ConnectionBindingEnum connectionBinding = ConnectionBindingEnum.THREAD;
+	private final List<ObjectName> registeredMBeanNames = new ArrayList<>();
+	private final OrientDBConflictStatisticsImpl conflictStatistics = new OrientDBConflictStatisticsImpl();
+	private ConflictRetryPolicy conflictRetryPolicy = new ConflictRetryPolicy( 1, 0, 0 );
+	private int warmUpSize;
+	private int bulkChunkSize = OrientDBConstant.DEFAULT_BULK_CHUNK_SIZE;
+	private OrientDBMetrics metrics = DisabledMetrics.INSTANCE;
+	private NativeQuerySettings nativeQuerySettings = NativeQuerySettings.DISABLED;
+	private List<String> warmUpQueries;
 
 	@Override
 	public Class<? extends GridDialect> getDefaultDialect() {
@@ -72,13 +110,30 @@ public class OrientDBDatastoreProvider extends BaseDatastoreProvider implements
 			}
 
 			Integer poolSize = PropertyReaderUtil.readPoolSizeProperty( propertyReader );
+			warmUpSize = Math.min( PropertyReaderUtil.readPoolWarmUpSizeProperty( propertyReader ), poolSize );
+			warmUpQueries = splitQueries( PropertyReaderUtil.readPoolWarmUpQueriesProperty( propertyReader ) );
 			String orientDBUrl = prepareOrientDbUrl( storageMode );
 
 			Boolean needCreateNewDatabase = PropertyReaderUtil.readCreateDatabaseProperty( propertyReader );
 
 			String databaseName = PropertyReaderUtil.readDatabaseNameProperty( propertyReader );
 
+			writeMode = PropertyReaderUtil.readWriteModeProperty( propertyReader );
+			connectionBinding = PropertyReaderUtil.readConnectionBindingProperty( propertyReader );
+			bulkChunkSize = PropertyReaderUtil.readBulkChunkSizeProperty( propertyReader );
+			metrics = PropertyReaderUtil.readMetricsProperty( propertyReader );
+			nativeQuerySettings = new NativeQuerySettings( metrics, PropertyReaderUtil.readSlowQueryThresholdProperty( propertyReader ),
+					PropertyReaderUtil.readSlowQueryExplainProperty( propertyReader ) );
+			conflictRetryPolicy = new ConflictRetryPolicy( PropertyReaderUtil.readRetryMaxAttemptsProperty( propertyReader ),
+					PropertyReaderUtil.readRetryInitialBackoffProperty( propertyReader ),
+					PropertyReaderUtil.readRetryMaxBackoffProperty( propertyReader ) );
+
 			databaseHolder = new DatabaseHolder( orientDBUrl, user, password, poolSize ,databaseName,needCreateNewDatabase,storageMode );
+			sequenceAllocators = new SequenceAllocators( PropertyReaderUtil.readSequenceBlockSizeProperty( propertyReader ),
+					databaseHolder::openIsolated );
+			if ( PropertyReaderUtil.readPoolJmxEnabledProperty( propertyReader ) ) {
+				registerStatistics( databaseName );
+			}
 
 			FormatterUtil.setDateFormatter( createFormatter( propertyReader, OrientDBProperties.DATE_FORMAT, OrientDBConstant.DEFAULT_DATE_FORMAT ) );
 			FormatterUtil.setDateTimeFormatter( createFormatter( propertyReader, OrientDBProperties.DATETIME_FORMAT, OrientDBConstant.DEFAULT_DATETIME_FORMAT ) );
@@ -91,6 +146,103 @@ public class OrientDBDatastoreProvider extends BaseDatastoreProvider implements
 		}
 	}
 
+	private static List<String> splitQueries(String queries) {
+		List<String> result = new ArrayList<>();
+		if ( queries != null ) {
+			for ( String query : queries.split( ";" ) ) {
+				if ( !query.trim().isEmpty() ) {
+					result.add( query.trim() );
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Open sessions of the pool and load metadata of the mapped classes (the schema and roots of indexes), so first
+	 * requests do not pay for it. Warm-up queries are executed by the first session. The warm-up is executed only if
+	 * {@link OrientDBProperties#POOL_WARMUP_SIZE} is set.
+	 *
+	 * @param classNames names of mapped classes
+	 */
+	public void warmUpPool(Collection<String> classNames) {
+		if ( warmUpSize <= 0 ) {
+			return;
+		}
+		// connection of the current thread is released, so all sessions of the pool can be opened
+		closeCurrentDatabase();
+		long start = System.currentTimeMillis();
+		boolean[] first = { true };
+		databaseHolder.warmUp( warmUpSize, db -> {
+			OSchema schema = db.getMetadata().getImmutableSchemaSnapshot();
+			if ( first[0] ) {
+				first[0] = false;
+				// pages of the indexes are shared by all sessions
+				for ( String className : classNames ) {
+					OClass oClass = schema.getClass( className );
+					if ( oClass != null ) {
+						for ( OIndex<?> index : oClass.getIndexes() ) {
+							log.debugf( "warm-up: index %s; size: %d", index.getName(), index.getSize() );
+						}
+					}
+				}
+				for ( String query : warmUpQueries ) {
+					try {
+						NativeQueryUtil.executeIdempotentQuery( nativeQuerySettings, db, query );
+					}
+					catch (RuntimeException e) {
+						log.cannotExecuteWarmUpQuery( query, e );
+					}
+				}
+			}
+		} );
+		log.infof( "warm-up of pool: sessions: %d; classes: %d; queries: %d; time: %d ms", warmUpSize, classNames.size(),
+				warmUpQueries.size(), System.currentTimeMillis() - start );
+	}
+
+	private void registerStatistics(String databaseName) {
+		String quotedName = ObjectName.quote( databaseName );
+		registerMBean( "org.hibernate.ogm.orientdb:type=ConnectionPool,database=" + quotedName, databaseHolder.getStatistics() );
+		registerMBean( "org.hibernate.ogm.orientdb:type=TransactionConflicts,database=" + quotedName, conflictStatistics );
+		if ( metrics instanceof OrientDBOperationStatistics ) {
+			registerMBean( "org.hibernate.ogm.orientdb:type=Operations,database=" + quotedName, metrics );
+		}
+	}
+
+	private void registerMBean(String name, Object mbean) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName( name );
+			try {
+				server.registerMBean( mbean, objectName );
+			}
+			catch (InstanceAlreadyExistsException e) {
+				// the MBean of previous (not stopped) provider for the same database
+				server.unregisterMBean( objectName );
+				server.registerMBean( mbean, objectName );
+			}
+			registeredMBeanNames.add( objectName );
+		}
+		catch (Exception e) {
+			log.cannotRegisterMBean( name, e );
+		}
+	}
+
+	private void unregisterMBeans() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for ( ObjectName objectName : registeredMBeanNames ) {
+			try {
+				if ( server.isRegistered( objectName ) ) {
+					server.unregisterMBean( objectName );
+				}
+			}
+			catch (Exception e) {
+				log.cannotUnregisterMBean( objectName.toString(), e );
+			}
+		}
+		registeredMBeanNames.clear();
+	}
+
 	private ThreadLocal<DateFormat> createFormatter(final ConfigurationPropertyReader propertyReader, final String property, final String defaultFormat) {
 		return new ThreadLocal<DateFormat>() {
 
@@ -126,17 +278,209 @@ public class OrientDBDatastoreProvider extends BaseDatastoreProvider implements
 		return databaseHolder.get();
 	}
 
+	/**
+	 * Open new connection, that does not take part in the transaction of the current thread
+	 *
+	 * @return new connection. Caller must close the connection.
+	 */
+	public ODatabaseDocument openIsolatedDatabase() {
+		return databaseHolder.openIsolated();
+	}
+
+	/**
+	 * Make the isolated connection current connection of the thread (it is returned by {@link #getCurrentDatabase()})
+	 *
+	 * @param database isolated connection or {@code null}
+	 * @return previous isolated connection of the thread or {@code null}
+	 */
+	public ODatabaseDocument setIsolatedDatabase(ODatabaseDocument database) {
+		return databaseHolder.setIsolated( database );
+	}
+
+	/**
+	 * Get lease of connection of the current thread for a transaction. The transaction is counted as user of the
+	 * lease, so other transactions of the thread do not release the connection. The lease can be released by other
+	 * thread by {@link #releaseDatabase(DatabaseLease)}.
+	 *
+	 * @return lease of connection of the current thread
+	 */
+	public DatabaseLease retainCurrentLease() {
+		return databaseHolder.retainLease();
+	}
+
+	/**
+	 * Get connection for work in the transaction. If connections are bound to transactions, the connection of the
+	 * transaction is activated on the current thread. Otherwise, connection of the current thread is returned.
+	 *
+	 * @param transactionContext context of the transaction. Can be {@code null}.
+	 * @return connection
+	 */
+	public ODatabaseDocument getDatabase(TransactionContext transactionContext) {
+		if ( ConnectionBindingEnum.TRANSACTION.equals( connectionBinding ) && transactionContext != null
+				&& transactionContext.getTransactionId() != null ) {
+			return databaseHolder.activate( transactionContext.getTransactionId() );
+		}
+		return getCurrentDatabase();
+	}
+
+	/**
+	 * Get connection for write in the transaction. If the transaction of the connection is deferred (see
+	 * {@link #deferTransaction(ODatabaseDocument)}), OrientDB transaction is begun before the first write.
+	 *
+	 * @param transactionContext context of the transaction. Can be {@code null}.
+	 * @return connection
+	 */
+	public ODatabaseDocument getDatabaseForWrite(TransactionContext transactionContext) {
+		ODatabaseDocument database = getDatabase( transactionContext );
+		if ( databaseHolder.cancelDeferredTransaction( database ) ) {
+			OTransaction transaction = database.activateOnCurrentThread().begin( TXTYPE.OPTIMISTIC ).getTransaction();
+			transaction.setUsingLog( true );
+			log.debugf( "begin deferred transaction %d for database %s", transaction.getId(), database.getName() );
+		}
+		return database;
+	}
+
+	/**
+	 * Defer begin of OrientDB transaction of the connection till the first write (see
+	 * {@link #getDatabaseForWrite(TransactionContext)}). Read-only sessions do not need the transaction and its log.
+	 * The deferral ends with the transaction or when the connection is released back to the pool.
+	 *
+	 * @param database connection of the transaction
+	 */
+	public void deferTransaction(ODatabaseDocument database) {
+		databaseHolder.deferTransaction( database );
+	}
+
+	/**
+	 * Cancel the deferred transaction of the connection
+	 *
+	 * @param database connection of the transaction
+	 * @return true if the transaction was still deferred (nothing was written), false if it was begun by a write
+	 */
+	public boolean cancelDeferredTransaction(ODatabaseDocument database) {
+		return databaseHolder.cancelDeferredTransaction( database );
+	}
+
+	/**
+	 * Get connection for new transaction
+	 *
+	 * @param transactionId identifier of the transaction
+	 * @return connection
+	 */
+	public ODatabaseDocument beginTransactionDatabase(Object transactionId) {
+		if ( ConnectionBindingEnum.TRANSACTION.equals( connectionBinding ) ) {
+			return databaseHolder.bind( transactionId );
+		}
+		return databaseHolder.retain( transactionId );
+	}
+
+	/**
+	 * Release connection of the completed transaction back to the pool. Connection of the current thread is shared by
+	 * transactions of the thread, so it is released only if other transactions do not use it. If connections are
+	 * bound to transactions, the thread acquires own connection only for calls without context of transaction, and
+	 * it is released too.
+	 *
+	 * @param transactionId identifier of the transaction
+	 */
+	public void releaseTransactionDatabase(Object transactionId) {
+		if ( transactionId != null ) {
+			if ( ConnectionBindingEnum.TRANSACTION.equals( connectionBinding ) ) {
+				databaseHolder.unbind( transactionId );
+			}
+			else {
+				databaseHolder.releaseTransaction( transactionId );
+			}
+		}
+		databaseHolder.releaseUnused();
+	}
+
+	/**
+	 * Get statistics of the pool of connections
+	 *
+	 * @return statistics of the pool
+	 */
+	public OrientDBPoolStatistics getPoolStatistics() {
+		return databaseHolder.getStatistics();
+	}
+
+	/**
+	 * Open loader of big amount of documents. The loader uses own connection, so its work does not take part in the
+	 * transaction of the current thread.
+	 *
+	 * @return new loader. Caller must close the loader.
+	 */
+	public OrientDBBulkLoader openBulkLoader() {
+		return new OrientDBBulkLoader( databaseHolder.openIsolated(), bulkChunkSize );
+	}
+
+	/**
+	 * Get metrics of operations
+	 *
+	 * @return metrics. If metrics are not collected, {@link OrientDBMetrics#isEnabled()} returns {@code false}.
+	 */
+	public OrientDBMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Get settings of execution of native queries: metrics and log of slow queries
+	 *
+	 * @return settings of native queries
+	 */
+	public NativeQuerySettings getNativeQuerySettings() {
+		return nativeQuerySettings;
+	}
+
+	/**
+	 * Get statistics of conflicts of transactions
+	 *
+	 * @return statistics of conflicts
+	 */
+	public OrientDBConflictStatisticsImpl getConflictStatistics() {
+		return conflictStatistics;
+	}
+
+	public ConflictRetryPolicy getConflictRetryPolicy() {
+		return conflictRetryPolicy;
+	}
+
+	public SequenceAllocators getSequenceAllocators() {
+		return sequenceAllocators;
+	}
+
+	public WriteModeEnum getWriteMode() {
+		return writeMode;
+	}
+
 	protected StorageModeEnum getDefaultStorage() {
 		return StorageModeEnum.MEMORY;
 	}
 
+	/**
+	 * Release connection of the current thread back to the pool
+	 */
 	public void closeCurrentDatabase() {
-		databaseHolder.remove();
+		databaseHolder.release();
+	}
+
+	/**
+	 * Remove the transaction from users of the lease. The connection is released back to the pool, if other
+	 * transactions do not use it.
+	 *
+	 * @param lease lease of connection, that is got by {@link #retainCurrentLease()}
+	 */
+	public void releaseDatabase(DatabaseLease lease) {
+		databaseHolder.releaseUser( lease );
 	}
 
 	@Override
 	public void stop() {
 		log.debug( "---stop---" );
+		if ( sequenceAllocators != null ) {
+			sequenceAllocators.close();
+		}
+		nativeQuerySettings = NativeQuerySettings.DISABLED;
+		unregisterMBeans();
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -58,6 +58,35 @@ public interface Log extends org.hibernate.ogm.util.impl.Log {
 	@Message(id = 1710, value = "Unable to rollback transaction")
 	void unableToRollbackTransaction(@Cause Exception re);
 
+	@Message(id = 1712, value = "Cannot reserve values of sequence %s!")
+	HibernateException cannotReserveSequenceValues(String sequenceName, @Cause Throwable cause);
+
+	@Message(id = 1713, value = "Sequence %s not found!")
+	HibernateException sequenceNotFound(String sequenceName);
+
+	@LogMessage(level = WARN)
+	@Message(id = 1714, value = "Cannot register MBean %s")
+	void cannotRegisterMBean(String objectName, @Cause Exception cause);
+
+	@LogMessage(level = WARN)
+	@Message(id = 1715, value = "Cannot unregister MBean %s")
+	void cannotUnregisterMBean(String objectName, @Cause Exception cause);
+
+	@LogMessage(level = WARN)
+	@Message(id = 1716, value = "Cannot execute warm-up query %s")
+	void cannotExecuteWarmUpQuery(String query, @Cause Exception cause);
+
+	@Message(id = 1717, value = "Cannot rebuild index %s!")
+	HibernateException cannotRebuildIndex(String indexName, @Cause Exception cause);
+
+	@LogMessage(level = WARN)
+	@Message(id = 1718, value = "Slow query (%d ms, %d rows): %s; parameters: %s")
+	void slowQuery(long durationMillis, long rows, String query, String parameters);
+
+	@LogMessage(level = WARN)
+	@Message(id = 1719, value = "Plan of slow query %s:%n%s")
+	void slowQueryPlan(String query, String plan);
+
 	@Message(id = 1410, value = "Error performing isolated work")
 	HibernateException unableToPerformIsolatedWork(@Cause Exception e);
 }
@@ -0,0 +1,113 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Simple registry of metrics in memory. The registry keeps {@link OperationMetrics} for each operation and each
+ * class. The registry is used by tests and is exposed by JMX (see {@link OrientDBOperationStatistics}).
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class InMemoryMetrics implements OrientDBMetrics, OrientDBOperationStatistics {
+
+	private static final String NO_CLASS = "-";
+
+	private final Map<OrientDBOperation, ConcurrentMap<String, OperationMetrics>> operations = new EnumMap<>( OrientDBOperation.class );
+
+	public InMemoryMetrics() {
+		for ( OrientDBOperation operation : OrientDBOperation.values() ) {
+			operations.put( operation, new ConcurrentHashMap<>() );
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+	@Override
+	public void record(OrientDBOperation operation, String className, long durationNanos, long rows, long bytes) {
+		ConcurrentMap<String, OperationMetrics> classes = operations.get( operation );
+		String key = className != null ? className : NO_CLASS;
+		OperationMetrics metrics = classes.get( key );
+		if ( metrics == null ) {
+			metrics = classes.computeIfAbsent( key, k -> new OperationMetrics() );
+		}
+		metrics.record( durationNanos, rows, bytes );
+	}
+
+	/**
+	 * Get metrics of the operation with the class
+	 *
+	 * @param operation the operation
+	 * @param className name of class. Can be {@code null}.
+	 * @return metrics or {@code null} if the operation with the class is not recorded
+	 */
+	public OperationMetrics getMetrics(OrientDBOperation operation, String className) {
+		return operations.get( operation ).get( className != null ? className : NO_CLASS );
+	}
+
+	@Override
+	public Map<String, Long> getCounts() {
+		return collect( OperationMetrics::getCount );
+	}
+
+	@Override
+	public Map<String, Long> getMeanMicros() {
+		return collect( metrics -> TimeUnit.NANOSECONDS.toMicros( metrics.getMeanNanos() ) );
+	}
+
+	@Override
+	public Map<String, Long> getP50Micros() {
+		return collect( metrics -> metrics.getPercentileMicros( 50 ) );
+	}
+
+	@Override
+	public Map<String, Long> getP99Micros() {
+		return collect( metrics -> metrics.getPercentileMicros( 99 ) );
+	}
+
+	@Override
+	public Map<String, Long> getMaxMicros() {
+		return collect( metrics -> TimeUnit.NANOSECONDS.toMicros( metrics.getMaxNanos() ) );
+	}
+
+	@Override
+	public Map<String, Long> getRows() {
+		return collect( OperationMetrics::getRows );
+	}
+
+	@Override
+	public Map<String, Long> getBytes() {
+		return collect( OperationMetrics::getBytes );
+	}
+
+	@Override
+	public void reset() {
+		for ( ConcurrentMap<String, OperationMetrics> classes : operations.values() ) {
+			classes.clear();
+		}
+	}
+
+	private Map<String, Long> collect(ToLongFunction<OperationMetrics> value) {
+		Map<String, Long> result = new TreeMap<>();
+		for ( Map.Entry<OrientDBOperation, ConcurrentMap<String, OperationMetrics>> operation : operations.entrySet() ) {
+			for ( Map.Entry<String, OperationMetrics> metrics : operation.getValue().entrySet() ) {
+				result.put( operation.getKey() + " " + metrics.getKey(), value.applyAsLong( metrics.getValue() ) );
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one operation with one class: counters and histogram of durations.
+ * <p>
+ * The histogram has log-linear buckets (like HdrHistogram): each power of two of microseconds is divided into
+ * 8 buckets, so the error of percentiles is less than 12.5%. The histogram has fixed size and
+ * updates of the metrics do not allocate memory.
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class OperationMetrics {
+
+	private static final int SUB_BUCKETS = 8;
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int BUCKETS = 62 * SUB_BUCKETS;
+
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+	private final LongAdder rows = new LongAdder();
+	private final LongAdder bytes = new LongAdder();
+	private final AtomicLongArray histogram = new AtomicLongArray( BUCKETS );
+
+	/**
+	 * Record the operation
+	 *
+	 * @param durationNanos duration in nanoseconds
+	 * @param rows number of documents
+	 * @param bytes size of records in bytes
+	 */
+	public void record(long durationNanos, long rows, long bytes) {
+		count.increment();
+		totalNanos.add( durationNanos );
+		this.rows.add( rows );
+		this.bytes.add( bytes );
+		long max = maxNanos.get();
+		while ( durationNanos > max && !maxNanos.compareAndSet( max, durationNanos ) ) {
+			max = maxNanos.get();
+		}
+		histogram.incrementAndGet( bucketOf( TimeUnit.NANOSECONDS.toMicros( durationNanos ) ) );
+	}
+
+	static int bucketOf(long micros) {
+		if ( micros < SUB_BUCKETS ) {
+			return (int) Math.max( micros, 0 );
+		}
+		int magnitude = 63 - Long.numberOfLeadingZeros( micros );
+		int subBucket = (int) ( ( micros >>> ( magnitude - SUB_BUCKET_BITS ) ) & ( SUB_BUCKETS - 1 ) );
+		return Math.min( ( magnitude - SUB_BUCKET_BITS + 1 ) * SUB_BUCKETS + subBucket, BUCKETS - 1 );
+	}
+
+	static long lowestMicrosOf(int bucket) {
+		if ( bucket < SUB_BUCKETS ) {
+			return bucket;
+		}
+		int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		int subBucket = bucket % SUB_BUCKETS;
+		return (long) ( SUB_BUCKETS + subBucket ) << ( magnitude - SUB_BUCKET_BITS );
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	public long getMeanNanos() {
+		long currentCount = count.sum();
+		return currentCount == 0 ? 0 : totalNanos.sum() / currentCount;
+	}
+
+	public long getRows() {
+		return rows.sum();
+	}
+
+	public long getBytes() {
+		return bytes.sum();
+	}
+
+	/**
+	 * Get percentile of durations
+	 *
+	 * @param percentile percentile (from 0 to 100)
+	 * @return the lowest duration (in microseconds) of the bucket of the percentile
+	 */
+	public long getPercentileMicros(double percentile) {
+		long total = 0;
+		for ( int i = 0; i < BUCKETS; i++ ) {
+			total += histogram.get( i );
+		}
+		if ( total == 0 ) {
+			return 0;
+		}
+		long threshold = Math.max( 1, (long) Math.ceil( total * percentile / 100.0 ) );
+		long current = 0;
+		for ( int i = 0; i < BUCKETS; i++ ) {
+			current += histogram.get( i );
+			if ( current >= threshold ) {
+				return lowestMicrosOf( i );
+			}
+		}
+		return lowestMicrosOf( BUCKETS - 1 );
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.metrics;
+
+/**
+ * SPI for collecting of metrics of operations of the dialect and of native queries.
+ * <p>
+ * Implementation is set by {@link org.hibernate.ogm.datastore.orientdb.OrientDBProperties#METRICS}. Callers check
+ * {@link #isEnabled()} before measuring, so disabled metrics cost nothing (no allocations, no calls of
+ * {@link System#nanoTime()}). Implementation must be thread-safe.
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ * @see InMemoryMetrics
+ */
+public interface OrientDBMetrics {
+
+	/**
+	 * @return true if the operations must be measured
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Record measured operation
+	 *
+	 * @param operation the operation
+	 * @param className name of OrientDB class (the table) or name of sequence. Can be {@code null} (for example, for
+	 * native queries).
+	 * @param durationNanos duration of the operation in nanoseconds
+	 * @param rows number of returned or written documents
+	 * @param bytes size of returned or written records in bytes, if it is known by OrientDB (records, that are not
+	 * serialized yet, have size 0)
+	 */
+	void record(OrientDBOperation operation, String className, long durationNanos, long rows, long bytes);
+}
@@ -0,0 +1,29 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.metrics;
+
+/**
+ * Operations, that are measured by {@link OrientDBMetrics}
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public enum OrientDBOperation {
+	GET_TUPLE,
+	GET_TUPLES,
+	INSERT_OR_UPDATE_TUPLE,
+	INSERT_TUPLE,
+	REMOVE_TUPLE,
+	GET_ASSOCIATION,
+	INSERT_OR_UPDATE_ASSOCIATION,
+	REMOVE_ASSOCIATION,
+	EXECUTE_BATCH,
+	NEXT_VALUE,
+	BACKEND_QUERY,
+	NATIVE_QUERY,
+	NATIVE_COMMAND,
+	NATIVE_SCRIPT
+}
@@ -0,0 +1,65 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.metrics;
+
+import java.util.Map;
+
+import javax.management.MXBean;
+
+/**
+ * Statistics of operations, that is collected by {@link InMemoryMetrics}. Keys of the maps are
+ * "{@code <operation> <class name>}".
+ * <p>
+ * The statistics is registered by JMX if {@link org.hibernate.ogm.datastore.orientdb.OrientDBProperties#POOL_JMX_ENABLED}
+ * is set.
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+@MXBean
+public interface OrientDBOperationStatistics {
+
+	/**
+	 * @return numbers of operations
+	 */
+	Map<String, Long> getCounts();
+
+	/**
+	 * @return average durations of operations in microseconds
+	 */
+	Map<String, Long> getMeanMicros();
+
+	/**
+	 * @return medians of durations of operations in microseconds
+	 */
+	Map<String, Long> getP50Micros();
+
+	/**
+	 * @return 99th percentiles of durations of operations in microseconds
+	 */
+	Map<String, Long> getP99Micros();
+
+	/**
+	 * @return max durations of operations in microseconds
+	 */
+	Map<String, Long> getMaxMicros();
+
+	/**
+	 * @return numbers of returned or written documents
+	 */
+	Map<String, Long> getRows();
+
+	/**
+	 * @return sizes of returned or written records in bytes
+	 */
+	Map<String, Long> getBytes();
+
+	/**
+	 * Remove collected statistics
+	 */
+	void reset();
+}
@@ -0,0 +1,29 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.metrics.impl;
+
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBMetrics;
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBOperation;
+
+/**
+ * Metrics, that are not collected. It is default implementation of {@link OrientDBMetrics}.
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class DisabledMetrics implements OrientDBMetrics {
+
+	public static final DisabledMetrics INSTANCE = new DisabledMetrics();
+
+	@Override
+	public boolean isEnabled() {
+		return false;
+	}
+
+	@Override
+	public void record(OrientDBOperation operation, String className, long durationNanos, long rows, long bytes) {
+	}
+}
@@ -0,0 +1,35 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.metrics.impl;
+
+import java.util.Locale;
+
+import org.hibernate.ogm.datastore.orientdb.metrics.InMemoryMetrics;
+import org.hibernate.ogm.util.configurationreader.spi.ShortNameResolver;
+
+/**
+ * Resolver of short names of implementations of metrics: {@code none} and {@code memory}
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class MetricsShortNameResolver implements ShortNameResolver {
+
+	public static final MetricsShortNameResolver INSTANCE = new MetricsShortNameResolver();
+
+	@Override
+	public boolean isShortName(String name) {
+		String lowerCaseName = name.toLowerCase( Locale.ROOT );
+		return "none".equals( lowerCaseName ) || "memory".equals( lowerCaseName );
+	}
+
+	@Override
+	public String resolve(String shortName) {
+		return "memory".equals( shortName.toLowerCase( Locale.ROOT ) )
+				? InMemoryMetrics.class.getName()
+				: DisabledMetrics.class.getName();
+	}
+}
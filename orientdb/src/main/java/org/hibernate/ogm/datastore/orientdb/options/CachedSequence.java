@@ -0,0 +1,34 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.options;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.ogm.datastore.orientdb.constant.OrientDBConstant;
+import org.hibernate.ogm.datastore.orientdb.options.impl.CachedSequenceConverter;
+import org.hibernate.ogm.options.spi.MappingOption;
+
+/**
+ * Sequences of the entity (the sequence of its identifier generator and the sequence of its primary key) are created
+ * as {@code CACHED} sequences. Values of such sequences are not ordered and can have gaps.
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ * @see <a href="https://orientdb.com/docs/3.0.x/sql/SQL-Create-Sequence.html">Sequences in OrientDB</a>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@MappingOption(CachedSequenceConverter.class)
+public @interface CachedSequence {
+
+	/**
+	 * @return number of values, that are cached by OrientDB
+	 */
+	int cacheSize() default OrientDBConstant.DEFAULT_SEQUENCE_CACHE_SIZE;
+}
@@ -0,0 +1,24 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.options.impl;
+
+import org.hibernate.ogm.datastore.orientdb.options.CachedSequence;
+import org.hibernate.ogm.options.spi.AnnotationConverter;
+import org.hibernate.ogm.options.spi.OptionValuePair;
+
+/**
+ * Converts {@link CachedSequence} to {@link CachedSequenceOption}
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class CachedSequenceConverter implements AnnotationConverter<CachedSequence> {
+
+	@Override
+	public OptionValuePair<?> convert(CachedSequence annotation) {
+		return OptionValuePair.getInstance( new CachedSequenceOption(), annotation.cacheSize() );
+	}
+}
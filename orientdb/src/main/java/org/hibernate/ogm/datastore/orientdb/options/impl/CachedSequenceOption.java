@@ -0,0 +1,19 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.options.impl;
+
+import org.hibernate.ogm.options.spi.UniqueOption;
+
+/**
+ * Option with cache size of sequences of entity. If the option is not set, the sequences are created by global
+ * settings.
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ * @see org.hibernate.ogm.datastore.orientdb.options.CachedSequence
+ */
+public class CachedSequenceOption extends UniqueOption<Integer> {
+}
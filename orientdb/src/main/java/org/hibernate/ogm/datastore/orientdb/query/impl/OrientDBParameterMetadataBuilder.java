@@ -6,19 +6,60 @@
  */
 package org.hibernate.ogm.datastore.orientdb.query.impl;
 
+import java.util.Map;
+
 import org.hibernate.engine.query.spi.ParameterParser;
+import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
 import org.hibernate.ogm.dialect.query.spi.RecognizerBasedParameterMetadataBuilder;
-import org.parboiled.Parboiled;
-import org.parboiled.parserunners.RecoveringParseRunner;
+import org.hibernate.query.internal.ParameterMetadataImpl;
 
 /**
  * {@link org.hibernate.ogm.dialect.query.spi.ParameterMetadataBuilder} for native OrientDB queries. The implementation
- * is based on a <a href="http://parboiled.org">parboiled</a> grammar.
+ * is based on {@link OrientDBQueryParameterScanner}.
+ * <p>
+ * The builder is thread safe. Metadata of parsed queries is kept in bounded cache (the query is the key), so repeated
+ * queries are not parsed again.
+ * </p>
  *
  * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
  */
 public class OrientDBParameterMetadataBuilder extends RecognizerBasedParameterMetadataBuilder {
 
+	/**
+	 * Default max number of queries in the cache of metadata
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 128;
+
+	private final Map<String, ParameterMetadataImpl> parameterMetadataCache;
+
+	public OrientDBParameterMetadataBuilder() {
+		this( DEFAULT_CACHE_SIZE );
+	}
+
+	/**
+	 * Contractor
+	 *
+	 * @param cacheSize max number of queries in the cache of metadata. If it is {@code 0}, metadata is not cached.
+	 */
+	public OrientDBParameterMetadataBuilder(int cacheSize) {
+		this.parameterMetadataCache = cacheSize > 0
+				? new BoundedConcurrentHashMap<>( cacheSize, 20, BoundedConcurrentHashMap.Eviction.LIRS )
+				: null;
+	}
+
+	@Override
+	public ParameterMetadataImpl buildParameterMetadata(String nativeQuery) {
+		if ( parameterMetadataCache == null ) {
+			return super.buildParameterMetadata( nativeQuery );
+		}
+		ParameterMetadataImpl parameterMetadata = parameterMetadataCache.get( nativeQuery );
+		if ( parameterMetadata == null ) {
+			parameterMetadata = super.buildParameterMetadata( nativeQuery );
+			parameterMetadataCache.put( nativeQuery, parameterMetadata );
+		}
+		return parameterMetadata;
+	}
+
 	/**
 	 * Parses the given native NoSQL query string, collecting the contained named parameters in the course of doing so.
 	 *
@@ -27,8 +68,7 @@ public class OrientDBParameterMetadataBuilder extends RecognizerBasedParameterMe
 	 */
 	@Override
 	public void parseQueryParameters(String noSqlQuery, ParameterParser.Recognizer recognizer) {
-		OrientDBQueryParser parser = Parboiled.createParser( OrientDBQueryParser.class, recognizer );
-		new RecoveringParseRunner<ParameterParser.Recognizer>( parser.Query() ).run( noSqlQuery );
+		OrientDBQueryParameterScanner.scan( noSqlQuery, recognizer );
 	}
 
 }
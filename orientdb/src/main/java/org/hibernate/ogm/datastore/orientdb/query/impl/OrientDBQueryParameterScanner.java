@@ -0,0 +1,106 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.query.impl;
+
+import org.hibernate.engine.query.spi.ParameterParser;
+
+/**
+ * The class is scanner of named parameters of OrientDB native queries
+ * <p>
+ * The query is scanned by one pass, char by char. Named parameters ({@code :name}, letters followed by digits) are
+ * reported to {@link ParameterParser.Recognizer}. Parameters are not searched in quoted strings ({@code '...'} with
+ * escaped quote {@code \'}) and in escaped names ({@code `...`} with escaped backtick {@code \`}). A quote or a
+ * backtick without closing pair is a usual char.
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public final class OrientDBQueryParameterScanner {
+
+	private static final char QUOTE_DELIMITER = '\'';
+	private static final char ESCAPE_DELIMITER = '`';
+	private static final char ESCAPE_CHAR = '\\';
+	private static final char PARAMETER_BEGIN_DELIMITER = ':';
+
+	private OrientDBQueryParameterScanner() {
+	}
+
+	/**
+	 * Scan the query and report named parameters to the recognizer
+	 *
+	 * @param query native query
+	 * @param recognizer collects named parameters
+	 */
+	public static void scan(String query, ParameterParser.Recognizer recognizer) {
+		int length = query.length();
+		int index = 0;
+		while ( index < length ) {
+			char c = query.charAt( index );
+			if ( c == QUOTE_DELIMITER || c == ESCAPE_DELIMITER ) {
+				int end = findClosingDelimiter( query, index + 1, c );
+				index = end < 0 ? index + 1 : end + 1;
+			}
+			else if ( c == PARAMETER_BEGIN_DELIMITER ) {
+				int nameEnd = findEndOfName( query, index + 1 );
+				if ( nameEnd > index + 1 ) {
+					recognizer.namedParameter( query.substring( index + 1, nameEnd ), nameEnd );
+				}
+				index = Math.max( nameEnd, index + 1 );
+			}
+			else {
+				index++;
+			}
+		}
+	}
+
+	/**
+	 * @return index of closing delimiter or -1 if the delimiter is not closed
+	 */
+	private static int findClosingDelimiter(String query, int start, char delimiter) {
+		int length = query.length();
+		int index = start;
+		while ( index < length ) {
+			char c = query.charAt( index );
+			if ( c == ESCAPE_CHAR && index + 1 < length && query.charAt( index + 1 ) == delimiter ) {
+				index += 2;
+			}
+			else if ( c == delimiter ) {
+				return index;
+			}
+			else {
+				index++;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return index after the name (letters followed by digits). If there is no name, the start index is returned.
+	 */
+	private static int findEndOfName(String query, int start) {
+		int length = query.length();
+		int index = start;
+		while ( index < length && isLetter( query.charAt( index ) ) ) {
+			index++;
+		}
+		if ( index == start ) {
+			return start;
+		}
+		while ( index < length && isDigit( query.charAt( index ) ) ) {
+			index++;
+		}
+		return index;
+	}
+
+	private static boolean isLetter(char c) {
+		return ( c >= 'a' && c <= 'z' ) || ( c >= 'A' && c <= 'Z' );
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
@@ -8,19 +8,25 @@
 package org.hibernate.ogm.datastore.orientdb.schema;
 
 import java.text.MessageFormat;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Locale;
 import java.util.Set;
 
 import org.hibernate.boot.model.relational.Namespace;
 import org.hibernate.ogm.datastore.orientdb.dto.EmbeddedColumnInfo;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.orientdb.options.impl.CachedSequenceOption;
 import org.hibernate.ogm.datastore.orientdb.utils.EntityKeyUtil;
 import org.hibernate.ogm.datastore.orientdb.utils.NativeQueryUtil;
+import org.hibernate.ogm.datastore.orientdb.utils.PropertyReaderUtil;
+import org.hibernate.ogm.datastore.orientdb.utils.SequenceUtil;
+import org.hibernate.ogm.datastore.orientdb.OrientDBProperties.SequenceTypeEnum;
+import org.hibernate.id.IdentifierGenerator;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.PrimaryKey;
@@ -29,7 +35,10 @@ import org.hibernate.mapping.Table;
 import org.hibernate.mapping.Value;
 import org.hibernate.ogm.datastore.spi.BaseSchemaDefiner;
 import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.id.spi.PersistentNoSqlIdentifierGenerator;
 import org.hibernate.ogm.model.key.spi.IdSourceKeyMetadata;
+import org.hibernate.ogm.options.spi.OptionsService;
+import org.hibernate.ogm.util.configurationreader.spi.ConfigurationPropertyReader;
 import org.hibernate.service.spi.ServiceRegistryImplementor;
 import org.hibernate.type.CustomType;
 import org.hibernate.type.EntityType;
@@ -40,14 +49,10 @@ import org.hibernate.usertype.UserType;
 
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
-import com.orientechnologies.orient.core.metadata.function.OFunction;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OProperty;
 import com.orientechnologies.orient.core.metadata.schema.OSchema;
 import com.orientechnologies.orient.core.metadata.schema.OType;
-import com.orientechnologies.orient.core.metadata.sequence.OSequence;
-import com.orientechnologies.orient.core.metadata.sequence.OSequence.CreateParams;
-import com.orientechnologies.orient.core.metadata.sequence.OSequence.SEQUENCE_TYPE;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -88,6 +93,12 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 
 	private OrientDBDatastoreProvider provider;
 
+	/**
+	 * cache sizes of {@code CACHED} sequences by upper-cased names of sequences
+	 */
+	private Map<String, Integer> sequenceCacheSizes = Collections.emptyMap();
+	private Integer defaultSequenceCacheSize;
+
 	private String createClassQuery(String tableName) {
 		return String.format( "create class %s ", tableName );
 	}
@@ -106,16 +117,53 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 	}
 
 	private void createSequence(ODatabaseDocument db, String seqName, int startValue, int incValue) {
-		OSequence seq = db.getMetadata().getSequenceLibrary().getSequence( seqName );
-		if ( seq == null ) {
-			CreateParams p = new CreateParams();
-			p.setStart( (long) ( startValue == 0 ? 0 : startValue - incValue ) );
-			if ( incValue > 0 ) {
-				p.setIncrement( incValue );
+		SequenceUtil.defineSequence( db, seqName, startValue, incValue, getSequenceCacheSize( seqName ) );
+	}
+
+	/**
+	 * @return cache size of {@code CACHED} sequence or {@code null} for {@code ORDERED} sequence
+	 */
+	private Integer getSequenceCacheSize(String seqName) {
+		Integer cacheSize = sequenceCacheSizes.get( seqName.toUpperCase( Locale.ENGLISH ) );
+		return cacheSize != null ? cacheSize : defaultSequenceCacheSize;
+	}
+
+	/**
+	 * Collect cache sizes of sequences of entities with option {@link CachedSequenceOption}
+	 */
+	private void resolveSequenceCacheSizes(SchemaDefinitionContext context) {
+		ConfigurationPropertyReader propertyReader = provider.getPropertyReader();
+		defaultSequenceCacheSize = SequenceTypeEnum.CACHED.equals( PropertyReaderUtil.readSequenceTypeProperty( propertyReader ) )
+				? PropertyReaderUtil.readSequenceCacheSizeProperty( propertyReader )
+				: null;
+		sequenceCacheSizes = new HashMap<>();
+		SessionFactoryImplementor sessionFactory = context.getSessionFactory();
+		OptionsService optionsService = sessionFactory.getServiceRegistry().getService( OptionsService.class );
+		Map<String, Class<?>> tableEntityTypeMapping = context.getTableEntityTypeMapping();
+		for ( Namespace namespace : context.getDatabase().getNamespaces() ) {
+			for ( Table table : namespace.getTables() ) {
+				Class<?> entityType = tableEntityTypeMapping.get( table.getName() );
+				if ( entityType == null ) {
+					continue;
+				}
+				Integer cacheSize = optionsService.context().getEntityOptions( entityType ).getUnique( CachedSequenceOption.class );
+				if ( cacheSize == null ) {
+					continue;
+				}
+				if ( table.hasPrimaryKey() && table.getPrimaryKey().getColumns().size() == 1 ) {
+					String seqName = generateSeqName( table.getName(), table.getPrimaryKey().getColumns().get( 0 ).getName() );
+					sequenceCacheSizes.put( seqName.toUpperCase( Locale.ENGLISH ), cacheSize );
+				}
+				IdentifierGenerator generator = sessionFactory.getMetamodel().entityPersister( entityType ).getIdentifierGenerator();
+				if ( generator instanceof PersistentNoSqlIdentifierGenerator ) {
+					IdSourceKeyMetadata generatorMetadata = ( (PersistentNoSqlIdentifierGenerator) generator ).getGeneratorKeyMetadata();
+					if ( IdSourceType.SEQUENCE.equals( generatorMetadata.getType() ) ) {
+						sequenceCacheSizes.put( generatorMetadata.getName().toUpperCase( Locale.ENGLISH ), cacheSize );
+					}
+				}
 			}
-			seq = db.getMetadata().getSequenceLibrary().createSequence( seqName, SEQUENCE_TYPE.ORDERED, p );
-			log.debugf( "sequence %s created. current value: %d ", seq.getName(), seq.current() );
 		}
+		log.debugf( "cache sizes of sequences: %s; default cache size: %s", sequenceCacheSizes, defaultSequenceCacheSize );
 	}
 
 	private void createTableSequence(ODatabaseDocument db, String seqTable, String pkColumnName, String valueColumnName) {
@@ -129,81 +177,6 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 		seqTableClass.createIndex( seqTable + "_index", OClass.INDEX_TYPE.UNIQUE, pkColumnName );
 	}
 
-	private void createGetTableSeqValueFunc(ODatabaseDocument db) {
-		log.debugf( "functions : %s", db.getMetadata().getFunctionLibrary().getFunctionNames() );
-		OFunction getTableSeqValue = db.getMetadata().getFunctionLibrary().getFunction( OrientDBConstant.GET_TABLE_SEQ_VALUE_FUNC );
-		if ( getTableSeqValue == null ) {
-			getTableSeqValue = db.getMetadata().getFunctionLibrary().createFunction( OrientDBConstant.GET_TABLE_SEQ_VALUE_FUNC );
-			getTableSeqValue.setLanguage( "groovy" );
-			getTableSeqValue.setIdempotent( false );
-			getTableSeqValue.setParameters( Arrays.asList( new String[]{ "seqName", "pkColumnName",
-					"pkColumnValue", "valueColumnName", "initValue", "inc" } ) );
-			getTableSeqValue.setCode( "long nextValue=-1;def db = orient.getDatabase(); \n"
-					+ " def results = null; \n"
-					+ " String updateQuery=\"UPDATE ${seqName} INCREMENT ${valueColumnName} = ${inc} RETURN AFTER \\$current WHERE ${pkColumnName} = '${pkColumnValue}' LOCK RECORD\";\n"
-					+ " String selectQuery = \"select from ${seqName} where ${pkColumnName}='{pkColumnValue}'\";\n"
-					+ " String insertQuery = \"insert into ${seqName} (${pkColumnName},${valueColumnName}) values('${pkColumnValue}',${initValue})\";\n"
-					+ " try {\n"
-					+ "   results = db.command(updateQuery); \n"
-					+ "   if (results.length==0) {\n"
-					+ "       try {\n"
-					+ "         db.command(insertQuery);\n"
-					+ "       } catch (Exception e2) {\n"
-					+ "           throw e2;\n"
-					+ "       }; \n"
-					+ "       nextValue=Long.parseLong(\"${initValue}\"); \n"
-					+ "   } else { \n"
-					+ "       nextValue=results[0].field(\"${valueColumnName}\");"
-					+ "   }; \n"
-					+ " } catch (com.orientechnologies.orient.core.exception.OConcurrentModificationException ce) { \n"
-					+ "    results = db.command(updateQuery); \n"
-					+ "    nextValue=results[0].field(\"${valueColumnName}\"); \n"
-					+ " } catch (Exception e) { \n"
-					+ "    throw e; \n"
-					+ "};   \n"
-					+ "return nextValue; " );
-			getTableSeqValue.save();
-			log.infof( "stored procedure %s created", OrientDBConstant.GET_TABLE_SEQ_VALUE_FUNC );
-		}
-	}
-
-	private void createGetNextSeqValueFunc(ODatabaseDocument db) {
-		log.debugf( "functions : %s", db.getMetadata().getFunctionLibrary().getFunctionNames() );
-		OFunction getTableSeqValue = db.getMetadata().getFunctionLibrary().getFunction( OrientDBConstant.GET_NEXT_SEQ_VALUE_FUNC );
-		if ( getTableSeqValue == null ) {
-			getTableSeqValue = db.getMetadata().getFunctionLibrary().createFunction( OrientDBConstant.GET_NEXT_SEQ_VALUE_FUNC );
-			getTableSeqValue.setLanguage( "groovy" );
-			getTableSeqValue.setIdempotent( false );
-			getTableSeqValue.setParameters( Arrays.asList( new String[]{ "seqName" } ) );
-			getTableSeqValue.setCode( "def db = orient.getDatabase(); \n" +
-					"String selectQuery = \"select sequence('${seqName}').next()\";\n" +
-					"def metadata = db.getMetadata(); \n" +
-					"def executeQuery = metadata.getFunctionLibrary().getFunction( \"" + OrientDBConstant.EXECUTE_QUERY_FUNC + "\" );\n" +
-					"if (executeQuery==null) {\n" +
-					"   metadata.reload();\n" +
-					"   executeQuery = metadata.getFunctionLibrary().getFunction( \"" + OrientDBConstant.EXECUTE_QUERY_FUNC + "\" );\n" +
-					"}; \n" +
-					"com.orientechnologies.orient.core.db.record.OIdentifiable[] arr = executeQuery.execute (selectQuery);\n" +
-					"return ((com.orientechnologies.orient.core.record.impl.ODocument)arr[0]).field('sequence')" );
-			getTableSeqValue.save();
-			log.infof( "stored procedure %s created", OrientDBConstant.GET_NEXT_SEQ_VALUE_FUNC );
-		}
-	}
-
-	private void createExecuteQueryFunc(ODatabaseDocument db) {
-		log.debugf( "functions : %s", db.getMetadata().getFunctionLibrary().getFunctionNames() );
-		OFunction executeQuery = db.getMetadata().getFunctionLibrary().getFunction( OrientDBConstant.EXECUTE_QUERY_FUNC );
-		if ( executeQuery == null ) {
-			executeQuery = db.getMetadata().getFunctionLibrary().createFunction( OrientDBConstant.EXECUTE_QUERY_FUNC );
-			executeQuery.setLanguage( "groovy" );
-			executeQuery.setIdempotent( false );
-			executeQuery.setParameters( Arrays.asList( new String[]{ "insertQuery" } ) );
-			executeQuery.setCode( "return orient.getDatabase().command(insertQuery);" );
-			executeQuery.save();
-			log.infof( "stored procedure %s created", OrientDBConstant.EXECUTE_QUERY_FUNC );
-		}
-	}
-
 	private void createEntities(ODatabaseDocument db, SchemaDefinitionContext context) {
 		OSchema schema = db.getMetadata().getSchema();
 
@@ -288,7 +261,7 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 			for ( String className : embeddedListColumn.getClassNames() ) {
 				if ( !createdEmbeddedClassSet.contains( className ) ) {
 					String classQuery = createClassQuery( className );
-					NativeQueryUtil.executeNonIdempotentQuery( db, classQuery );
+					NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), db, classQuery );
 					tables.add( className );
 				}
 			}
@@ -296,7 +269,7 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 		}
 		else {
 			String classQuery = createClassQuery( context, table );
-			NativeQueryUtil.executeNonIdempotentQuery( db, classQuery );
+			NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), db, classQuery );
 			tables.add( tableName );
 		}
 		try {
@@ -357,7 +330,7 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 				else {
 					Class<?> mappedByClass = searchMappedByReturnedClass( context, namespace.getTables(), (EntityType) value.getType(), column );
 					String propertyQuery = createValueProperyQuery( table, column, OrientDBMapping.FOREIGN_KEY_TYPE_MAPPING.get( mappedByClass ) );
-					NativeQueryUtil.executeNonIdempotentQuery( db, propertyQuery );
+					NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), db, propertyQuery );
 				}
 			}
 			else if ( EntityKeyUtil.isEmbeddedColumn( column ) ) {
@@ -372,13 +345,13 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 					String propertyQuery = createValueProperyQuery( column, tableName, columnName,
 							simpleValue.getType().getClass() );
 					log.debugf( "create property query: %s", propertyQuery );
-					NativeQueryUtil.executeNonIdempotentQuery( db, propertyQuery );
+					NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), db, propertyQuery );
 				}
 			}
 			else {
 				String propertyQuery = createValueProperyQuery( tableName, column );
 				try {
-					NativeQueryUtil.executeNonIdempotentQuery( db, propertyQuery );
+					NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), db, propertyQuery );
 					if ( column.isUnique() ) {
 						// create unique index for the column
 						String uniqueIndexQuery = String.format( "CREATE INDEX %s_%s_un ON %s (%s) UNIQUE",
@@ -386,7 +359,7 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 								column.getName(),
 								tableName,
 								column.getName() );
-						NativeQueryUtil.executeNonIdempotentQuery( db, uniqueIndexQuery );
+						NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), db, uniqueIndexQuery );
 					}
 				}
 				catch (OCommandExecutionException oe) {
@@ -461,7 +434,7 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 
 		// try {
 		log.debugf( "primary key query: %s", uniqueIndexQuery );
-		NativeQueryUtil.executeNonIdempotentQuery( db, uniqueIndexQuery );
+		NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), db, uniqueIndexQuery );
 
 		if ( primaryKey.getColumns().size() == 1 && OrientDBMapping.SEQ_TYPES.contains( primaryKey.getColumns().get( 0 ).getValue().getType().getClass() ) ) {
 			createSequence( db, generateSeqName( primaryKey.getTable().getName(), primaryKey.getColumns().get( 0 ).getName() ), 0 );
@@ -487,11 +460,11 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 					log.debugf( "11.propertyOwnerClassName: %s; propertyName: %s;embeddedClassName:%s; classIndex:%d",
 							propertyOwnerClassName, embeddedClassName, embeddedClassName, classIndex );
 					String executedQuery = createClassQuery( embeddedClassName );
-					NativeQueryUtil.executeNonIdempotentQuery( provider.getCurrentDatabase(), executedQuery );
+					NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), provider.getCurrentDatabase(), executedQuery );
 					executedQuery = MessageFormat.format( CREATE_EMBEDDED_PROPERTY_TEMPLATE,
 							propertyOwnerClassName, embeddedClassName, embeddedClassName );
 					log.debugf( "1.query: %s; ", executedQuery );
-					NativeQueryUtil.executeNonIdempotentQuery( provider.getCurrentDatabase(), executedQuery );
+					NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), provider.getCurrentDatabase(), executedQuery );
 					createdEmbeddedClassSet.add( embeddedClassName );
 				}
 				else {
@@ -508,7 +481,7 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 				try {
 					executedQuery = createValueProperyQuery( column, propertyOwnerClassName, valuePropertyName, simpleValue.getType().getClass() );
 					log.debugf( "2.query: %s; ", executedQuery );
-					NativeQueryUtil.executeNonIdempotentQuery( provider.getCurrentDatabase(), executedQuery );
+					NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), provider.getCurrentDatabase(), executedQuery );
 				}
 				catch (OCommandExecutionException oe) {
 					log.debugf( "orientdb message: %s; ", oe.getMessage() );
@@ -625,9 +598,6 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 		log.debugf( "context.getAllIdSourceKeyMetadata(): %s", context.getAllIdSourceKeyMetadata() );
 		log.debugf( "context.getTableEntityTypeMapping(): %s", context.getTableEntityTypeMapping() );
 
-		createExecuteQueryFunc( db );
-		createGetTableSeqValueFunc( db );
-		createGetNextSeqValueFunc( db );
 		for ( IdSourceKeyMetadata metadata : context.getAllIdSourceKeyMetadata() ) {
 			log.debugf( "Name: %s ;KeyColumnName:%s ;ValueColumnName:%s ",
 					metadata.getName(), metadata.getKeyColumnName(), metadata.getValueColumnName() );
@@ -635,7 +605,9 @@ public class OrientDBDocumentSchemaDefiner extends BaseSchemaDefiner {
 				createTableSequence( db, metadata.getName(), metadata.getKeyColumnName(), metadata.getValueColumnName() );
 			}
 		}
+		resolveSequenceCacheSizes( context );
 		createEntities( db, context );
+		provider.warmUpPool( context.getTableEntityTypeMapping().keySet() );
 	}
 
 	@Override
@@ -0,0 +1,184 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.sequence.impl;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.hibernate.HibernateException;
+import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
+import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.orientdb.utils.SequenceUtil;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.metadata.sequence.OSequence;
+import com.orientechnologies.orient.core.metadata.sequence.OSequence.SEQUENCE_TYPE;
+
+/**
+ * The class holds allocators of values of sequences and table generators ({@link SequenceBlockAllocator}), one
+ * allocator for each sequence.
+ * <p>
+ * Values and blocks are taken by one background thread. The thread uses own connection (see
+ * {@link org.hibernate.ogm.datastore.orientdb.connection.DatabaseHolder#openIsolated()}), so reserved values do not
+ * depend on transactions of the application and the thread does not wait for free connection in the pool. Values are
+ * taken by the background thread even if the reservation of blocks is disabled: callers do not need a connection, and
+ * conflicts of concurrent changes of the row of table generator are raised by save of the row and are retried, not by
+ * commit of the transaction of the application.
+ * </p>
+ * <p>
+ * Blocks are not reserved for {@code CACHED} sequences: OrientDB caches their values itself (by the cache size of the
+ * sequence), and the reservation of blocks by SQL would bypass the sequence.
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class SequenceAllocators {
+
+	private static final Log log = LoggerFactory.getLogger();
+
+	private final int blockSize;
+	private final Supplier<ODatabaseDocument> isolatedDatabaseSupplier;
+	private final ConcurrentMap<String, SequenceBlockAllocator> allocators = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Boolean> cachedSequences = new ConcurrentHashMap<>();
+	private final ExecutorService executor;
+
+	/**
+	 * the connection is used only by the thread of the executor
+	 */
+	private ODatabaseDocument isolatedDatabase;
+
+	/**
+	 * Contractor
+	 *
+	 * @param blockSize number of values, that are reserved by one request
+	 * @param isolatedDatabaseSupplier opens new connection that is not bound to transaction
+	 */
+	public SequenceAllocators(int blockSize, Supplier<ODatabaseDocument> isolatedDatabaseSupplier) {
+		this.blockSize = blockSize;
+		this.isolatedDatabaseSupplier = isolatedDatabaseSupplier;
+		this.executor = Executors.newSingleThreadExecutor( runnable -> {
+			Thread thread = new Thread( runnable, "OGM OrientDB sequence allocator" );
+			thread.setDaemon( true );
+			return thread;
+		} );
+	}
+
+	/**
+	 * Get next value from sequence. Values are taken by own connection, so they do not depend on the connection and
+	 * the transaction of the current thread.
+	 *
+	 * @param seqName name of sequence
+	 * @return next value of the sequence
+	 */
+	public long getNextSequenceValue(String seqName) {
+		String name = seqName.toUpperCase( Locale.ENGLISH );
+		SequenceBlockAllocator allocator = allocators.get( name );
+		if ( allocator != null ) {
+			return allocator.next();
+		}
+		if ( blockSize <= 1 || isCachedSequence( name ) ) {
+			return reserve( name, () -> SequenceUtil.getNextSequenceValue( getIsolatedDatabase(), seqName ) );
+		}
+		allocator = allocators.computeIfAbsent( name, key -> new SequenceBlockAllocator( key, blockSize,
+				size -> SequenceUtil.reserveSequenceBlock( getIsolatedDatabase(), key, size ), executor ) );
+		return allocator.next();
+	}
+
+	private boolean isCachedSequence(String name) {
+		Boolean cached = cachedSequences.get( name );
+		if ( cached == null ) {
+			cached = reserve( name, () -> {
+				ODatabaseDocument db = getIsolatedDatabase();
+				OSequence sequence = db.getMetadata().getSequenceLibrary().getSequence( name );
+				if ( sequence == null ) {
+					db.getMetadata().reload();
+					sequence = db.getMetadata().getSequenceLibrary().getSequence( name );
+				}
+				// unknown sequence is reported by the reservation of block
+				return sequence != null ? sequence.getSequenceType() == SEQUENCE_TYPE.CACHED : null;
+			} );
+			if ( cached == null ) {
+				return false;
+			}
+			cachedSequences.put( name, cached );
+		}
+		return cached;
+	}
+
+	/**
+	 * Get next value from table generator. Blocks are cached for each value of name of sequence
+	 * ({@code pkColumnValue}).
+	 *
+	 * @param seqTable name of table that uses for generate values
+	 * @param pkColumnName name of column that contains name of sequence
+	 * @param pkColumnValue value of name of sequence
+	 * @param valueColumnName name of column that contains value of sequence
+	 * @param initValue initial value
+	 * @param inc value of increment
+	 * @return next value of the sequence
+	 */
+	public long getNextTableValue(String seqTable, String pkColumnName, String pkColumnValue,
+			String valueColumnName, int initValue, int inc) {
+		String name = seqTable + "." + pkColumnValue;
+		if ( blockSize <= 1 ) {
+			return reserve( name, () -> SequenceUtil.getNextTableValue( getIsolatedDatabase(), seqTable, pkColumnName, pkColumnValue,
+					valueColumnName, initValue, inc ) );
+		}
+		SequenceBlockAllocator allocator = allocators.get( name );
+		if ( allocator == null ) {
+			allocator = allocators.computeIfAbsent( name, key -> new SequenceBlockAllocator( key, blockSize,
+					size -> SequenceUtil.reserveTableBlock( getIsolatedDatabase(), seqTable, pkColumnName, pkColumnValue, valueColumnName,
+							initValue, inc, size ), executor ) );
+		}
+		return allocator.next();
+	}
+
+	private <T> T reserve(String name, Callable<T> reservation) {
+		try {
+			return executor.submit( reservation ).get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw log.cannotReserveSequenceValues( name, e );
+		}
+		catch (ExecutionException e) {
+			if ( e.getCause() instanceof HibernateException ) {
+				throw (HibernateException) e.getCause();
+			}
+			throw log.cannotReserveSequenceValues( name, e.getCause() );
+		}
+	}
+
+	private ODatabaseDocument getIsolatedDatabase() {
+		if ( isolatedDatabase == null || isolatedDatabase.isClosed() ) {
+			isolatedDatabase = isolatedDatabaseSupplier.get();
+		}
+		isolatedDatabase.activateOnCurrentThread();
+		return isolatedDatabase;
+	}
+
+	/**
+	 * Stop the background thread and close its connection
+	 */
+	public void close() {
+		executor.execute( () -> {
+			if ( isolatedDatabase != null && !isolatedDatabase.isClosed() ) {
+				isolatedDatabase.activateOnCurrentThread();
+				isolatedDatabase.close();
+			}
+			isolatedDatabase = null;
+		} );
+		executor.shutdown();
+		log.debugf( "sequence allocators closed. sequences: %s", allocators.keySet() );
+	}
+}
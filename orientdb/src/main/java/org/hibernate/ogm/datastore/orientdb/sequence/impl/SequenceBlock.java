@@ -0,0 +1,72 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.sequence.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class is block of values of sequence, that is reserved in the datastore by one request.
+ * <p>
+ * The block contains {@code size} values: {@code first}, {@code first + increment}, ... Values are handed out without
+ * locks: each call of {@link #nextIndex()} returns unique index of value.
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class SequenceBlock {
+
+	/**
+	 * Block without values
+	 */
+	public static final SequenceBlock EMPTY = new SequenceBlock( 0, 1, 0 );
+
+	private final long first;
+	private final long increment;
+	private final int size;
+	private final AtomicLong position = new AtomicLong();
+
+	/**
+	 * Contractor
+	 *
+	 * @param first first value of the block
+	 * @param increment increment of the sequence
+	 * @param size number of values in the block
+	 */
+	public SequenceBlock(long first, long increment, int size) {
+		this.first = first;
+		this.increment = increment;
+		this.size = size;
+	}
+
+	/**
+	 * @return index of next value. If the index is greater or equal to {@link #getSize()}, the block is exhausted.
+	 */
+	long nextIndex() {
+		return position.getAndIncrement();
+	}
+
+	long valueAt(long index) {
+		return first + index * increment;
+	}
+
+	public long getFirst() {
+		return first;
+	}
+
+	public long getIncrement() {
+		return increment;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "SequenceBlock [first=" + first + ", increment=" + increment + ", size=" + size + "]";
+	}
+}
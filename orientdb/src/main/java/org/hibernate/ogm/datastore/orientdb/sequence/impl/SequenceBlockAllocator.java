@@ -0,0 +1,99 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.sequence.impl;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
+import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+
+/**
+ * The class is allocator of values of one sequence.
+ * <p>
+ * Values are handed out from the current {@link SequenceBlock} without locks. When half of the block is handed out,
+ * the next block is reserved in background by the executor. The lock of the allocator is taken only for switching of
+ * blocks, so threads wait for the datastore only if the next block is not reserved yet.
+ * </p>
+ * <p>
+ * Values of blocks, that are not handed out before shutdown, are lost (the sequence has gaps).
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class SequenceBlockAllocator {
+
+	private static final Log log = LoggerFactory.getLogger();
+
+	private final String sequenceName;
+	private final int blockSize;
+	private final IntFunction<SequenceBlock> blockSource;
+	private final ExecutorService executor;
+
+	private volatile SequenceBlock currentBlock = SequenceBlock.EMPTY;
+	private Future<SequenceBlock> nextBlock;
+
+	/**
+	 * Contractor
+	 *
+	 * @param sequenceName name of sequence
+	 * @param blockSize number of values in one block
+	 * @param blockSource reserves block of given size in the datastore
+	 * @param executor executor for reservation of blocks
+	 */
+	public SequenceBlockAllocator(String sequenceName, int blockSize, IntFunction<SequenceBlock> blockSource, ExecutorService executor) {
+		this.sequenceName = sequenceName;
+		this.blockSize = blockSize;
+		this.blockSource = blockSource;
+		this.executor = executor;
+	}
+
+	/**
+	 * @return next value of the sequence
+	 */
+	public long next() {
+		while ( true ) {
+			SequenceBlock block = currentBlock;
+			long index = block.nextIndex();
+			if ( index < block.getSize() ) {
+				if ( index == block.getSize() / 2 ) {
+					reserveNextBlock( block );
+				}
+				return block.valueAt( index );
+			}
+			switchBlock( block );
+		}
+	}
+
+	private synchronized void reserveNextBlock(SequenceBlock block) {
+		if ( currentBlock == block && nextBlock == null ) {
+			nextBlock = executor.submit( () -> blockSource.apply( blockSize ) );
+		}
+	}
+
+	private synchronized void switchBlock(SequenceBlock exhaustedBlock) {
+		if ( currentBlock != exhaustedBlock ) {
+			// other thread has switched the block
+			return;
+		}
+		Future<SequenceBlock> reservedBlock = nextBlock != null ? nextBlock : executor.submit( () -> blockSource.apply( blockSize ) );
+		nextBlock = null;
+		try {
+			currentBlock = reservedBlock.get();
+			log.debugf( "sequence %s: new block %s", sequenceName, currentBlock );
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw log.cannotReserveSequenceValues( sequenceName, e );
+		}
+		catch (ExecutionException e) {
+			throw log.cannotReserveSequenceValues( sequenceName, e.getCause() );
+		}
+	}
+}
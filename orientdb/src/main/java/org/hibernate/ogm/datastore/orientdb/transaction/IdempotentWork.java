@@ -0,0 +1,18 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.transaction;
+
+/**
+ * Marker of isolated work (see {@link org.hibernate.engine.transaction.spi.IsolationDelegate}), that can be executed
+ * again if the transaction of the work fails because of concurrent modification of records. The work must have no
+ * side effects outside of the transaction.
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ * @see org.hibernate.ogm.datastore.orientdb.OrientDBProperties#RETRY_MAX_ATTEMPTS
+ */
+public interface IdempotentWork {
+}
@@ -0,0 +1,48 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.transaction;
+
+import javax.management.MXBean;
+
+/**
+ * Statistics of conflicts of optimistic transactions (concurrent modifications of records).
+ * <p>
+ * The statistics is available by
+ * {@link org.hibernate.ogm.datastore.orientdb.impl.OrientDBDatastoreProvider#getConflictStatistics()} and by JMX (see
+ * {@link org.hibernate.ogm.datastore.orientdb.OrientDBProperties#POOL_JMX_ENABLED}).
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+@MXBean
+public interface OrientDBConflictStatistics {
+
+	/**
+	 * @return number of transactions, that are failed because of concurrent modification
+	 */
+	long getConflicts();
+
+	/**
+	 * @return number of repeated executions of isolated works
+	 */
+	long getRetries();
+
+	/**
+	 * @return number of isolated works, that are committed after retry
+	 */
+	long getSuccessfulRetries();
+
+	/**
+	 * @return number of isolated works, that are failed after all attempts
+	 */
+	long getExhaustedRetries();
+
+	/**
+	 * Reset the counters
+	 */
+	void reset();
+}
@@ -0,0 +1,74 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.transaction.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
+
+/**
+ * Policy of repeating of isolated works, that are failed because of concurrent modification of records. Pause
+ * between attempts grows exponentially and is randomized ("full jitter"), so concurrent works do not conflict again
+ * at the same time.
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class ConflictRetryPolicy {
+
+	private final int maxAttempts;
+	private final long initialBackoff;
+	private final long maxBackoff;
+
+	/**
+	 * Contractor
+	 *
+	 * @param maxAttempts max number of executions of work. Value {@code 1} disables repeating.
+	 * @param initialBackoff max pause (in milliseconds) before second attempt
+	 * @param maxBackoff upper limit of pause (in milliseconds)
+	 */
+	public ConflictRetryPolicy(int maxAttempts, long initialBackoff, long maxBackoff) {
+		this.maxAttempts = Math.max( maxAttempts, 1 );
+		this.initialBackoff = Math.max( initialBackoff, 0 );
+		this.maxBackoff = Math.max( maxBackoff, this.initialBackoff );
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * Is the exception (or one of its causes) a conflict of concurrent modifications?
+	 *
+	 * @param e the exception
+	 * @return true if the work can be repeated
+	 */
+	public boolean isConflict(Throwable e) {
+		for ( Throwable current = e; current != null; current = current.getCause() ) {
+			if ( current instanceof OConcurrentModificationException ) {
+				return true;
+			}
+			if ( current.getCause() == current ) {
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Calculate pause before next attempt
+	 *
+	 * @param attempt number of failed attempt (from 1)
+	 * @return pause in milliseconds
+	 */
+	public long backoff(int attempt) {
+		long limit = initialBackoff << Math.min( attempt - 1, 30 );
+		if ( limit <= 0 || limit > maxBackoff ) {
+			limit = maxBackoff;
+		}
+		return limit == 0 ? 0 : ThreadLocalRandom.current().nextLong( limit + 1 );
+	}
+}
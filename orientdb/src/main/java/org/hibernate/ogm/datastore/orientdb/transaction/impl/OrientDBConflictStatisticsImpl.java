@@ -0,0 +1,68 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.transaction.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.ogm.datastore.orientdb.transaction.OrientDBConflictStatistics;
+
+/**
+ * Collector of statistics of conflicts of transactions
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class OrientDBConflictStatisticsImpl implements OrientDBConflictStatistics {
+
+	private final AtomicLong conflicts = new AtomicLong();
+	private final AtomicLong retries = new AtomicLong();
+	private final AtomicLong successfulRetries = new AtomicLong();
+	private final AtomicLong exhaustedRetries = new AtomicLong();
+
+	public void conflict() {
+		conflicts.incrementAndGet();
+	}
+
+	public void retry() {
+		retries.incrementAndGet();
+	}
+
+	public void retrySucceeded() {
+		successfulRetries.incrementAndGet();
+	}
+
+	public void retriesExhausted() {
+		exhaustedRetries.incrementAndGet();
+	}
+
+	@Override
+	public long getConflicts() {
+		return conflicts.get();
+	}
+
+	@Override
+	public long getRetries() {
+		return retries.get();
+	}
+
+	@Override
+	public long getSuccessfulRetries() {
+		return successfulRetries.get();
+	}
+
+	@Override
+	public long getExhaustedRetries() {
+		return exhaustedRetries.get();
+	}
+
+	@Override
+	public void reset() {
+		conflicts.set( 0 );
+		retries.set( 0 );
+		successfulRetries.set( 0 );
+		exhaustedRetries.set( 0 );
+	}
+}
@@ -9,6 +9,7 @@ package org.hibernate.ogm.datastore.orientdb.transaction.impl;
 import javax.transaction.Status;
 import javax.transaction.Synchronization;
 
+import org.hibernate.ogm.datastore.orientdb.connection.DatabaseLease;
 import org.hibernate.ogm.datastore.orientdb.impl.OrientDBDatastoreProvider;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
@@ -17,6 +18,7 @@ import org.hibernate.resource.transaction.spi.TransactionCoordinator;
 import org.hibernate.resource.transaction.spi.TransactionStatus;
 
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
 import com.orientechnologies.orient.core.tx.OTransaction;
 
 /**
@@ -29,6 +31,7 @@ public class OrientDBJtaTransactionCoordinator extends ForwardingTransactionCoor
 	private static final Log log = LoggerFactory.getLogger();
 	private final OrientDBDatastoreProvider datastoreProvider;
 	private OTransaction currentOrientDBTransaction;
+	private DatabaseLease currentLease;
 
 	/**
 	 * Constructor
@@ -54,11 +57,18 @@ public class OrientDBJtaTransactionCoordinator extends ForwardingTransactionCoor
 	}
 
 	private void join() {
-		ODatabaseDocument database = datastoreProvider.getCurrentDatabase();
-
 		if ( currentOrientDBTransaction == null && delegate.isActive() ) {
+			DatabaseLease lease = datastoreProvider.retainCurrentLease();
+			ODatabaseDocument database = datastoreProvider.getCurrentDatabase();
 			log.debugf( "begin transaction for database %s", database.getName() );
-			database.begin();
+			try {
+				database.begin();
+			}
+			catch (RuntimeException e) {
+				datastoreProvider.releaseDatabase( lease );
+				throw e;
+			}
+			currentLease = lease;
 			currentOrientDBTransaction = database.getTransaction();
 			delegate.getLocalSynchronizations().registerSynchronization( new OrientDBSynchronization() );
 		}
@@ -70,7 +80,13 @@ public class OrientDBJtaTransactionCoordinator extends ForwardingTransactionCoor
 			log.debugf( "commit  transaction N %d for database %s",
 					currentOrientDBTransaction.getId(),
 					currentOrientDBTransaction.getDatabase().getName() );
-			currentOrientDBTransaction.commit();
+			try {
+				currentOrientDBTransaction.commit();
+			}
+			catch (OConcurrentModificationException e) {
+				datastoreProvider.getConflictStatistics().conflict();
+				throw e;
+			}
 			currentOrientDBTransaction = null;
 		}
 	}
@@ -100,12 +116,21 @@ public class OrientDBJtaTransactionCoordinator extends ForwardingTransactionCoor
 
 		@Override
 		public void afterCompletion(int status) {
-			if ( currentOrientDBTransaction != null ) {
-				if ( status != Status.STATUS_COMMITTED ) {
-					failure();
+			try {
+				if ( currentOrientDBTransaction != null ) {
+					if ( status != Status.STATUS_COMMITTED ) {
+						failure();
+					}
+					else {
+						success();
+					}
 				}
-				else {
-					success();
+			}
+			finally {
+				// the connection is returned to the pool, if other transactions of the thread do not use it
+				if ( currentLease != null ) {
+					datastoreProvider.releaseDatabase( currentLease );
+					currentLease = null;
 				}
 			}
 		}
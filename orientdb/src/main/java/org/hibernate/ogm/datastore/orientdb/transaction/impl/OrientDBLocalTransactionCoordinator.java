@@ -10,15 +10,19 @@ import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.transaction.Status;
 
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
 import com.orientechnologies.orient.core.tx.OTransaction;
 import com.orientechnologies.orient.core.tx.OTransaction.TXTYPE;
 
 import org.hibernate.HibernateException;
+import org.hibernate.Session;
 import org.hibernate.TransactionException;
+import org.hibernate.annotations.QueryHints;
 import org.hibernate.engine.transaction.spi.IsolationDelegate;
 import org.hibernate.engine.transaction.spi.TransactionObserver;
 import org.hibernate.jdbc.WorkExecutor;
@@ -26,7 +30,9 @@ import org.hibernate.jdbc.WorkExecutorVisitable;
 import org.hibernate.ogm.datastore.orientdb.impl.OrientDBDatastoreProvider;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.orientdb.transaction.IdempotentWork;
 import org.hibernate.ogm.dialect.impl.IdentifiableDriver;
+import org.hibernate.resource.jdbc.spi.JdbcSessionOwner;
 import org.hibernate.resource.transaction.internal.SynchronizationRegistryStandardImpl;
 import org.hibernate.resource.transaction.spi.SynchronizationRegistry;
 import org.hibernate.resource.transaction.spi.TransactionCoordinator;
@@ -42,6 +48,7 @@ import org.hibernate.resource.transaction.spi.TransactionStatus;
 public class OrientDBLocalTransactionCoordinator implements TransactionCoordinator {
 
 	private static Log log = LoggerFactory.getLogger();
+	private static final AtomicLong TRANSACTION_IDS = new AtomicLong();
 	private final TransactionCoordinatorBuilder transactionCoordinatorBuilder;
 	private final TransactionCoordinatorOwner owner;
 	private final SynchronizationRegistryStandardImpl synchronizationRegistry = new SynchronizationRegistryStandardImpl();
@@ -125,12 +132,73 @@ public class OrientDBLocalTransactionCoordinator implements TransactionCoordinat
 
 		@Override
 		public <T> T delegateWork(WorkExecutorVisitable<T> work, boolean transacted) throws HibernateException {
+			if ( !transacted ) {
+				log.cannotExecuteWorkOutsideIsolatedTransaction();
+			}
+			// OrientDB does not have a connection object, I'm not sure what it is best to do in this case.
+			// In this scenario I expect the visitable object to already have a way to connect to the db.
+			Connection connection = null;
+			return executeWithRetry( work, () -> work.accept( new WorkExecutor<T>(), connection ) );
+		}
+
+		@Override
+		public <T> T delegateCallable(Callable<T> callable, boolean transacted) throws HibernateException {
+			if ( !transacted ) {
+				log.cannotExecuteWorkOutsideIsolatedTransaction();
+			}
+			return executeWithRetry( callable, callable );
+		}
+
+		/**
+		 * Execute the work in new transaction. The work is executed again if it is marked by {@link IdempotentWork}
+		 * and the transaction fails because of concurrent modification.
+		 */
+		private <T> T executeWithRetry(Object work, Callable<T> action) {
+			ConflictRetryPolicy retryPolicy = datastoreProvider.getConflictRetryPolicy();
+			OrientDBConflictStatisticsImpl statistics = datastoreProvider.getConflictStatistics();
+			int maxAttempts = work instanceof IdempotentWork ? retryPolicy.getMaxAttempts() : 1;
+			for ( int attempt = 1; ; attempt++ ) {
+				try {
+					T result = executeInTransaction( action );
+					if ( attempt > 1 ) {
+						statistics.retrySucceeded();
+					}
+					return result;
+				}
+				catch (HibernateException e) {
+					if ( !retryPolicy.isConflict( e ) ) {
+						throw e;
+					}
+					statistics.conflict();
+					if ( attempt >= maxAttempts ) {
+						if ( maxAttempts > 1 ) {
+							statistics.retriesExhausted();
+						}
+						throw e;
+					}
+					long backoff = retryPolicy.backoff( attempt );
+					log.debugf( "concurrent modification in isolated work. attempt: %d; pause: %d ms", attempt, backoff );
+					try {
+						Thread.sleep( backoff );
+					}
+					catch (InterruptedException ie) {
+						Thread.currentThread().interrupt();
+						throw e;
+					}
+					statistics.retry();
+				}
+			}
+		}
+
+		/**
+		 * Execute the work in transaction of own connection. Transaction of the current thread can be active, so the
+		 * work must not use its connection: nested transaction of OrientDB is not committed to the storage.
+		 */
+		private <T> T executeInTransaction(Callable<T> action) throws HibernateException {
 			OTransaction tx = null;
+			ODatabaseDocument database = datastoreProvider.openIsolatedDatabase();
+			ODatabaseDocument outerIsolatedDatabase = datastoreProvider.setIsolatedDatabase( database );
 			try {
-				if ( !transacted ) {
-					log.cannotExecuteWorkOutsideIsolatedTransaction();
-				}
-				ODatabaseDocument database = datastoreProvider.getCurrentDatabase();
 				log.debugf( "begin transaction for database %s. isActiveOnCurrentThread: %s",
 							database.getName(), database.isActiveOnCurrentThread()
 				);
@@ -142,10 +210,8 @@ public class OrientDBLocalTransactionCoordinator implements TransactionCoordinat
 				log.debugf( "Id of current transaction for database %s  is %d. (transaction: %s)", database.getName(),
 							tx.getId()
 				);
-				// OrientDB does not have a connection object, I'm not sure what it is best to do in this case.
-				// In this scenario I expect the visitable object to already have a way to connect to the db.
-				Connection connection = null;
-				T result = work.accept( new WorkExecutor<T>(), connection );
+				T result = action.call();
+				database.activateOnCurrentThread();
 				tx.commit();
 				log.debugf(
 						"commit transaction N %s for database %s. Transaction acvite? %s",
@@ -157,7 +223,10 @@ public class OrientDBLocalTransactionCoordinator implements TransactionCoordinat
 			}
 			catch (Exception e) {
 				try {
-					tx.rollback();
+					if ( tx != null ) {
+						database.activateOnCurrentThread();
+						tx.rollback();
+					}
 				}
 				catch (Exception re) {
 					log.unableToRollbackTransaction( re );
@@ -170,17 +239,11 @@ public class OrientDBLocalTransactionCoordinator implements TransactionCoordinat
 				}
 			}
 			finally {
-				if ( tx != null ) {
-					//tx.close();
-					tx = null;
-				}
+				datastoreProvider.setIsolatedDatabase( outerIsolatedDatabase );
+				database.activateOnCurrentThread();
+				database.close();
 			}
 		}
-
-		@Override
-		public <T> T delegateCallable(Callable<T> callable, boolean transacted) throws HibernateException {
-			throw new UnsupportedOperationException( "Not implemented yet" );
-		}
 	}
 
 	@Override
@@ -235,7 +298,10 @@ public class OrientDBLocalTransactionCoordinator implements TransactionCoordinat
 		for ( TransactionObserver observer : observers ) {
 			observer.afterCompletion( successful, false );
 		}
+		Object transactionId = physicalTransactionDelegate != null ? physicalTransactionDelegate.getTransactionId() : null;
 		invalidateDelegate();
+		// the connection is returned to the pool. next transaction acquires new connection
+		datastoreProvider.releaseTransactionDatabase( transactionId );
 	}
 
 	private void invalidateDelegate() {
@@ -247,9 +313,28 @@ public class OrientDBLocalTransactionCoordinator implements TransactionCoordinat
 		physicalTransactionDelegate = null;
 	}
 
+	/**
+	 * Is the session read-only? The session is read-only if its entities are loaded as read-only by default (see
+	 * {@link Session#setDefaultReadOnly(boolean)}, it is used by {@code @Transactional(readOnly = true)} of Spring) or
+	 * the session has property {@link QueryHints#READ_ONLY} with value {@code true}.
+	 *
+	 * @return true if the session is read-only
+	 */
+	private boolean isReadOnlySession() {
+		JdbcSessionOwner sessionOwner = owner.getJdbcSessionOwner();
+		if ( sessionOwner instanceof Session ) {
+			Session session = (Session) sessionOwner;
+			return session.isDefaultReadOnly()
+					|| Boolean.parseBoolean( String.valueOf( session.getProperties().get( QueryHints.READ_ONLY ) ) );
+		}
+		return false;
+	}
+
 	private class OrientDBTransactionDriver implements IdentifiableDriver {
 		private TransactionStatus status = TransactionStatus.NOT_ACTIVE;
 		private OTransaction currentOrientDBTransaction;
+		private ODatabaseDocument database;
+		private Long transactionId;
 		private boolean invalid;
 		private boolean rollbackOnly;
 
@@ -265,10 +350,19 @@ public class OrientDBLocalTransactionCoordinator implements TransactionCoordinat
 		@Override
 		public void begin() {
 			errorIfInvalid();
-			ODatabaseDocument database = datastoreProvider.getCurrentDatabase();
+			transactionId = TRANSACTION_IDS.incrementAndGet();
+			database = datastoreProvider.beginTransactionDatabase( transactionId );
 			log.debugf( "begin transaction for database %s. Connection's hash code: %s",
 						database.getName(), database.hashCode()
 			);
+			if ( isReadOnlySession() ) {
+				// reads do not need OrientDB transaction and its log. The transaction is begun by the first write.
+				log.debugf( "read-only transaction %d for database %s", transactionId, database.getName() );
+				currentOrientDBTransaction = null;
+				datastoreProvider.deferTransaction( database );
+				status = TransactionStatus.ACTIVE;
+				return;
+			}
 
 			currentOrientDBTransaction = database.activateOnCurrentThread()
 					.begin( TXTYPE.OPTIMISTIC ).getTransaction();
@@ -284,7 +378,17 @@ public class OrientDBLocalTransactionCoordinator implements TransactionCoordinat
 				if ( rollbackOnly ) {
 					throw new TransactionException( "Transaction was marked for rollback only; cannot commit" );
 				}
-				if ( currentOrientDBTransaction != null && currentOrientDBTransaction.isActive() ) {
+				if ( currentOrientDBTransaction == null && status == TransactionStatus.ACTIVE ) {
+					// read-only transaction
+					OrientDBLocalTransactionCoordinator.this.beforeCompletionCallback();
+					if ( !takeDeferredTransaction() ) {
+						status = TransactionStatus.NOT_ACTIVE;
+						OrientDBLocalTransactionCoordinator.this.afterCompletionCallback( true );
+						return;
+					}
+					commitOrientDBTransaction();
+				}
+				else if ( currentOrientDBTransaction != null && currentOrientDBTransaction.isActive() ) {
 					log.debugf(
 							"commit transaction N %s for database %s. Transaction acvite? %s",
 							String.valueOf( currentOrientDBTransaction.getId() ),
@@ -293,17 +397,50 @@ public class OrientDBLocalTransactionCoordinator implements TransactionCoordinat
 					);
 					log.debugf( "transaction state: %s", currentOrientDBTransaction );
 					OrientDBLocalTransactionCoordinator.this.beforeCompletionCallback();
-					currentOrientDBTransaction.commit();
-					currentOrientDBTransaction.close();
-					status = TransactionStatus.NOT_ACTIVE;
-					OrientDBLocalTransactionCoordinator.this.afterCompletionCallback( true );
+					commitOrientDBTransaction();
 				}
 		}
 
+		private void commitOrientDBTransaction() {
+			database.activateOnCurrentThread();
+			try {
+				currentOrientDBTransaction.commit();
+			}
+			catch (OConcurrentModificationException e) {
+				datastoreProvider.getConflictStatistics().conflict();
+				throw e;
+			}
+			currentOrientDBTransaction.close();
+			status = TransactionStatus.NOT_ACTIVE;
+			OrientDBLocalTransactionCoordinator.this.afterCompletionCallback( true );
+		}
+
+		/**
+		 * Take OrientDB transaction of read-only session, if it was begun by a write
+		 *
+		 * @return true if the transaction was begun, false if nothing was written
+		 */
+		private boolean takeDeferredTransaction() {
+			if ( datastoreProvider.cancelDeferredTransaction( database ) ) {
+				return false;
+			}
+			currentOrientDBTransaction = database.activateOnCurrentThread().getTransaction();
+			log.debugf( "deferred transaction %d of read-only session for database %s",
+						currentOrientDBTransaction.getId(), database.getName() );
+			return true;
+		}
+
 		@Override
 		public void rollback() {
 			log.debugf( "transaction state: %s", currentOrientDBTransaction );
-			if ( rollbackOnly || getStatus() == TransactionStatus.ACTIVE ) {
+			if ( ( rollbackOnly || getStatus() == TransactionStatus.ACTIVE ) && currentOrientDBTransaction == null
+					&& !takeDeferredTransaction() ) {
+				// read-only transaction without writes
+				rollbackOnly = false;
+				status = TransactionStatus.NOT_ACTIVE;
+				OrientDBLocalTransactionCoordinator.this.afterCompletionCallback( false );
+			}
+			else if ( rollbackOnly || getStatus() == TransactionStatus.ACTIVE ) {
 				rollbackOnly = false;
 				log.debugf(
 						"2.rollback  transaction N %s for database %s. Transaction active? %s",
@@ -312,6 +449,7 @@ public class OrientDBLocalTransactionCoordinator implements TransactionCoordinat
 						String.valueOf( currentOrientDBTransaction.isActive() )
 				);
 
+				database.activateOnCurrentThread();
 				if ( currentOrientDBTransaction.getStatus().equals( OTransaction.TXSTATUS.BEGUN ) ) {
 					//it is normal way for rollback
 					currentOrientDBTransaction.rollback();
@@ -330,7 +468,7 @@ public class OrientDBLocalTransactionCoordinator implements TransactionCoordinat
 
 		@Override
 		public Object getTransactionId() {
-			return currentOrientDBTransaction.getClientTransactionId();
+			return transactionId;
 		}
 
 		@Override
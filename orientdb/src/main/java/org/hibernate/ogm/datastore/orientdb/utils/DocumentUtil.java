@@ -0,0 +1,131 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.utils;
+
+import java.util.Set;
+
+import org.hibernate.ogm.datastore.orientdb.constant.OrientDBConstant;
+import org.hibernate.ogm.datastore.orientdb.dto.EmbeddedColumnInfo;
+import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
+import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+import org.hibernate.ogm.model.spi.Tuple;
+import org.hibernate.ogm.model.spi.TupleOperation;
+
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+/**
+ * Utility class for writing columns of {@link Tuple} to {@link ODocument} by Document API.
+ * <p>
+ * Embedded columns (like 'class1.class2.field1') are stored as embedded documents. Columns of primary key with
+ * embedded names (IdClass) are stored as fields of the document itself.
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ * @see <a href="http://orientdb.com/docs/3.0.x/java/Document-API-Documents.html">Documents in OrientDB</a>
+ */
+public class DocumentUtil {
+
+	private static final Log log = LoggerFactory.getLogger();
+
+	/**
+	 * Apply operations of the tuple to the document
+	 *
+	 * @param document target document
+	 * @param tuple tuple
+	 * @param keyColumnNames names of columns of primary key
+	 */
+	public static void applyOperations(ODocument document, Tuple tuple, Set<String> keyColumnNames) {
+		for ( TupleOperation operation : tuple.getOperations() ) {
+			String columnName = operation.getColumn();
+			switch ( operation.getType() ) {
+				case PUT:
+					setField( document, columnName, operation.getValue(), keyColumnNames.contains( columnName ) );
+					break;
+				case PUT_NULL:
+				case REMOVE:
+					removeField( document, columnName, keyColumnNames.contains( columnName ) );
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Set value of column to the document
+	 *
+	 * @param document target document
+	 * @param columnName name of column
+	 * @param value value of column
+	 * @param isPrimaryKeyColumn is column a part of primary key?
+	 */
+	public static void setField(ODocument document, String columnName, Object value, boolean isPrimaryKeyColumn) {
+		if ( OrientDBConstant.SYSTEM_FIELDS.contains( columnName ) ) {
+			return;
+		}
+		if ( value == null ) {
+			removeField( document, columnName, isPrimaryKeyColumn );
+			return;
+		}
+		Object fieldValue = EntityKeyUtil.toParameterValue( value );
+		if ( !EntityKeyUtil.isEmbeddedColumn( columnName ) ) {
+			document.field( columnName, fieldValue );
+		}
+		else if ( isPrimaryKeyColumn ) {
+			document.field( EntityKeyUtil.getPrimaryKeyFieldName( columnName ), fieldValue );
+		}
+		else {
+			EmbeddedColumnInfo ec = new EmbeddedColumnInfo( columnName );
+			log.debugf( "setField. EmbeddedColumnInfo: %s", ec );
+			getEmbeddedDocument( document, ec, true ).field( ec.getPropertyName(), fieldValue );
+		}
+	}
+
+	/**
+	 * Remove column from the document
+	 *
+	 * @param document target document
+	 * @param columnName name of column
+	 * @param isPrimaryKeyColumn is column a part of primary key?
+	 */
+	public static void removeField(ODocument document, String columnName, boolean isPrimaryKeyColumn) {
+		if ( OrientDBConstant.SYSTEM_FIELDS.contains( columnName ) ) {
+			return;
+		}
+		if ( !EntityKeyUtil.isEmbeddedColumn( columnName ) ) {
+			document.removeField( columnName );
+		}
+		else if ( isPrimaryKeyColumn ) {
+			document.removeField( EntityKeyUtil.getPrimaryKeyFieldName( columnName ) );
+		}
+		else {
+			EmbeddedColumnInfo ec = new EmbeddedColumnInfo( columnName );
+			ODocument embedded = getEmbeddedDocument( document, ec, false );
+			if ( embedded != null ) {
+				embedded.removeField( ec.getPropertyName() );
+			}
+		}
+	}
+
+	private static ODocument getEmbeddedDocument(ODocument document, EmbeddedColumnInfo ec, boolean create) {
+		ODocument current = document;
+		for ( String className : ec.getClassNames() ) {
+			Object value = current.field( className );
+			if ( value instanceof ODocument ) {
+				current = (ODocument) value;
+			}
+			else if ( create ) {
+				ODocument embedded = new ODocument( className );
+				current.field( className, embedded, OType.EMBEDDED );
+				current = embedded;
+			}
+			else {
+				return null;
+			}
+		}
+		return current;
+	}
+}
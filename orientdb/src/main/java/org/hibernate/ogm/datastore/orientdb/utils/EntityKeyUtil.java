@@ -7,18 +7,28 @@
 
 package org.hibernate.ogm.datastore.orientdb.utils;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+import org.apache.commons.codec.binary.Base64;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
 import org.hibernate.mapping.Column;
 import org.hibernate.ogm.model.key.spi.EntityKey;
 
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
-import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
 
 /**
  * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
@@ -36,67 +46,171 @@ public class EntityKeyUtil {
 		return column.contains( "." );
 	}
 
-	public static void setFieldValue(StringBuilder queryBuffer, Object dbKeyValue) {
-		if ( dbKeyValue instanceof String || dbKeyValue instanceof UUID || dbKeyValue instanceof Character ) {
-			queryBuffer.append( "'" ).append( dbKeyValue ).append( "'" );
+	/**
+	 * Convert value of a column to the value of a positional query parameter.
+	 * <p>
+	 * {@link BigInteger} is stored as Base64-encoded string, {@link Calendar} is stored as {@link Date} and
+	 * {@link Character} and {@link UUID} are stored as strings. Other values (including {@code byte[]}, that is stored
+	 * as binary field) are passed as they are.
+	 * </p>
+	 *
+	 * @param value value of column
+	 * @return value of parameter
+	 */
+	public static Object toParameterValue(Object value) {
+		if ( value instanceof BigInteger ) {
+			return new String( Base64.encodeBase64( ( (BigInteger) value ).toByteArray() ) );
 		}
-		else if ( dbKeyValue instanceof Date || dbKeyValue instanceof Calendar ) {
-			Calendar calendar = null;
-			if ( dbKeyValue instanceof Date ) {
-				calendar = Calendar.getInstance();
-				calendar.setTime( (Date) dbKeyValue );
-			}
-			else if ( dbKeyValue instanceof Calendar ) {
-				calendar = (Calendar) dbKeyValue;
-			}
-			String formattedStr = ( FormatterUtil.getDateTimeFormater().get() ).format( calendar.getTime() );
-			queryBuffer.append( "'" ).append( formattedStr ).append( "'" );
+		else if ( value instanceof Calendar ) {
+			return ( (Calendar) value ).getTime();
 		}
-		else {
-			queryBuffer.append( dbKeyValue );
+		else if ( value instanceof Character || value instanceof UUID ) {
+			return value.toString();
 		}
-		queryBuffer.append( " " );
+		return value;
 	}
 
-	public static String generatePrimaryKeyPredicate(EntityKey key) {
+	/**
+	 * Create key for matching of loaded values of fields with values of columns (like values of entity keys). Loaded
+	 * values can have other java types than values of columns (like Integer and Long, Timestamp and Date, BigDecimal
+	 * with other scale), so both sides are normalized: numbers to {@link Long} or {@link BigDecimal} without trailing
+	 * zeros, dates to milliseconds, binary values to {@link ByteBuffer} and links to record ids.
+	 *
+	 * @param values values of columns or loaded values of fields
+	 * @return key with {@code equals} and {@code hashCode} by normalized values
+	 */
+	public static List<Object> toLookupKey(Object... values) {
+		List<Object> lookupKey = new ArrayList<>( values.length );
+		for ( Object value : values ) {
+			lookupKey.add( normalizeValue( toParameterValue( value ) ) );
+		}
+		return lookupKey;
+	}
+
+	private static Object normalizeValue(Object value) {
+		if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+			return ( (Number) value ).longValue();
+		}
+		else if ( value instanceof Float || value instanceof Double ) {
+			// Float.toString keeps the written value (0.1f is not 0.10000000149011612)
+			return normalizeDecimal( new BigDecimal( value.toString() ) );
+		}
+		else if ( value instanceof BigDecimal ) {
+			return normalizeDecimal( (BigDecimal) value );
+		}
+		else if ( value instanceof Date ) {
+			return ( (Date) value ).getTime();
+		}
+		else if ( value instanceof byte[] ) {
+			return ByteBuffer.wrap( (byte[]) value );
+		}
+		else if ( value instanceof OIdentifiable ) {
+			return ( (OIdentifiable) value ).getIdentity();
+		}
+		return value;
+	}
+
+	private static Object normalizeDecimal(BigDecimal value) {
+		BigDecimal decimal = value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros();
+		if ( decimal.scale() <= 0 && decimal.precision() - decimal.scale() < 19 ) {
+			return decimal.longValue();
+		}
+		return decimal;
+	}
+
+	/**
+	 * Get name of the document field that stores the column of primary key
+	 *
+	 * @param columnName name of column of primary key
+	 * @return name of field
+	 */
+	public static String getPrimaryKeyFieldName(String columnName) {
+		// it is like embedded column .... but it is column for IdClass
+		return isEmbeddedColumn( columnName ) ? columnName.substring( columnName.indexOf( "." ) + 1 ) : columnName;
+	}
+
+	/**
+	 * Generate predicate template (like 'id = ?' or 'id1 = ? and id2 = ?') for search by primary key.
+	 *
+	 * @param keyColumnNames names of columns of primary key
+	 * @return template of predicate
+	 * @see #generatePrimaryKeyParams(EntityKey)
+	 */
+	public static String generatePrimaryKeyPredicate(String[] keyColumnNames) {
 		StringBuilder buffer = new StringBuilder( 100 );
-		for ( int i = 0; i < key.getColumnNames().length; i++ ) {
-			String columnName = key.getColumnNames()[i];
-			if ( columnName.contains( "." ) ) {
-				columnName = columnName.substring( columnName.indexOf( "." ) + 1 );
+		for ( int i = 0; i < keyColumnNames.length; i++ ) {
+			if ( i > 0 ) {
+				buffer.append( " and " );
 			}
-			Object columnValue = key.getColumnValues()[i];
-			buffer.append( columnName ).append( "=" );
-			setFieldValue( buffer, columnValue );
-			buffer.append( " and " );
+			buffer.append( getPrimaryKeyFieldName( keyColumnNames[i] ) ).append( " = ?" );
 		}
-		buffer.setLength( buffer.length() - 5 );
 		return buffer.toString();
 	}
 
-	@Deprecated
-	public static boolean existsPrimaryKeyInDB(ODatabaseDocument db, EntityKey key) {
+	public static String generatePrimaryKeyPredicate(EntityKey key) {
+		return generatePrimaryKeyPredicate( key.getColumnNames() );
+	}
 
+	/**
+	 * Values of positional parameters for predicate generated by {@link #generatePrimaryKeyPredicate(EntityKey)}
+	 *
+	 * @param key entity key
+	 * @return values of parameters
+	 */
+	public static Object[] generatePrimaryKeyParams(EntityKey key) {
+		Object[] params = new Object[key.getColumnValues().length];
+		for ( int i = 0; i < params.length; i++ ) {
+			params[i] = toParameterValue( key.getColumnValues()[i] );
+		}
+		return params;
+	}
+
+	/**
+	 * Check existence of the primary key in database. Only the record id of the first found document is loaded.
+	 *
+	 * @param db instance of OrientDB
+	 * @param key entity key
+	 * @return true if the primary key exists
+	 */
+	public static boolean existsPrimaryKeyInDB(ODatabaseDocument db, EntityKey key) {
 		StringBuilder buffer = new StringBuilder( 100 );
-		buffer.append( "select count(@rid) as c from " );
-		buffer.append( key.getTable() ).append( " where " );
-		buffer.append( generatePrimaryKeyPredicate( key ) );
-		List<ODocument> documents = NativeQueryUtil.executeIdempotentQuery( db, buffer );
-		if ( !documents.isEmpty() ) {
-			log.debugf( "existsPrimaryKeyInDB: count document: %s", documents.get( 0 ).toJSON() );
+		buffer.append( "select @rid from " ).append( key.getTable() ).append( " where " );
+		buffer.append( generatePrimaryKeyPredicate( key ) ).append( " limit 1" );
+		boolean exists = false;
+		try ( OResultSet resultSet = db.query( buffer.toString(), generatePrimaryKeyParams( key ) ) ) {
+			exists = resultSet.hasNext();
 		}
-		Long count = (Long) ( documents.isEmpty() ? 0L : documents.get( 0 ).field( "c", Long.class ) );
-		log.debugf( "existsPrimaryKeyInDB: count %d of query %s",count,buffer.toString() );
+		log.debugf( "existsPrimaryKeyInDB: exists: %b; query: %s", exists, buffer );
+		return exists;
+	}
 
-		return ( count > 0 );
+	/**
+	 * Check whether the index of the class of the entity is the index of primary key (created by schema definer)
+	 *
+	 * @param db instance of OrientDB
+	 * @param key entity key
+	 * @param indexName name of the index
+	 * @return true if fields of the index are fields of primary key
+	 */
+	public static boolean isPrimaryKeyIndex(ODatabaseDocument db, EntityKey key, String indexName) {
+		OClass oClass = db.getMetadata().getSchema().getClass( key.getTable() );
+		OIndex<?> index = oClass != null && indexName != null ? oClass.getClassIndex( indexName ) : null;
+		return index != null && isPrimaryKeyIndex( index, key.getColumnNames() );
 	}
-	public static boolean existsPrimaryKeyInDbOrCache(ODatabaseDocument db, EntityKey key) {
 
-		StringBuilder buffer = new StringBuilder( 100 );
-		buffer.append( "select from " ).append( key.getTable() ).append( " where " );
-		buffer.append( generatePrimaryKeyPredicate( key ) );
-		List<ODocument> documents = NativeQueryUtil.executeIdempotentQuery( db, buffer );
-		log.debugf( "existsPrimaryKeyInDbOrCache: count %d of query %s",documents.size(),buffer.toString() );
-		return !documents.isEmpty();
+	/**
+	 * Check whether the fields of the index are the fields of primary key
+	 *
+	 * @param index the index
+	 * @param keyColumnNames names of columns of primary key
+	 * @return true if fields of the index are fields of primary key
+	 */
+	public static boolean isPrimaryKeyIndex(OIndex<?> index, String[] keyColumnNames) {
+		Set<String> keyFieldNames = new HashSet<>();
+		for ( String columnName : keyColumnNames ) {
+			keyFieldNames.add( getPrimaryKeyFieldName( columnName ) );
+		}
+		List<String> indexFieldNames = index.getDefinition().getFields();
+		return indexFieldNames.size() == keyFieldNames.size() && keyFieldNames.containsAll( indexFieldNames );
 	}
 }
@@ -0,0 +1,73 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBMetrics;
+import org.hibernate.ogm.datastore.orientdb.metrics.impl.DisabledMetrics;
+
+/**
+ * Settings of execution of native queries: metrics and log of slow queries. The settings belong to one datastore
+ * provider and are passed to {@link NativeQueryUtil} with each query.
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class NativeQuerySettings {
+
+	/**
+	 * Settings without metrics and log of slow queries
+	 */
+	public static final NativeQuerySettings DISABLED = new NativeQuerySettings( DisabledMetrics.INSTANCE, -1, false );
+
+	private final OrientDBMetrics metrics;
+	private final long slowQueryThresholdNanos;
+	private final boolean explainSlowQueries;
+
+	/**
+	 * Contractor
+	 *
+	 * @param metrics metrics
+	 * @param thresholdMillis queries, that take longer (in milliseconds), are logged. Negative value disables the log.
+	 * @param explainSlowQueries log plans of slow queries (by {@code EXPLAIN})?
+	 */
+	public NativeQuerySettings(OrientDBMetrics metrics, long thresholdMillis, boolean explainSlowQueries) {
+		this.metrics = metrics;
+		this.slowQueryThresholdNanos = thresholdMillis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos( thresholdMillis );
+		this.explainSlowQueries = explainSlowQueries;
+	}
+
+	public OrientDBMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return true if slow queries are logged
+	 */
+	public boolean isSlowQueryLogEnabled() {
+		return slowQueryThresholdNanos >= 0;
+	}
+
+	/**
+	 * @return true if duration of queries is needed (by metrics or by log of slow queries)
+	 */
+	public boolean isMeasured() {
+		return metrics.isEnabled() || isSlowQueryLogEnabled();
+	}
+
+	/**
+	 * @param durationNanos duration of the query in nanoseconds
+	 * @return true if the query is slow and must be logged
+	 */
+	public boolean isSlow(long durationNanos) {
+		return isSlowQueryLogEnabled() && durationNanos >= slowQueryThresholdNanos;
+	}
+
+	public boolean isExplainSlowQueries() {
+		return explainSlowQueries;
+	}
+}
@@ -7,12 +7,20 @@
 package org.hibernate.ogm.datastore.orientdb.utils;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import org.hibernate.ogm.datastore.orientdb.dialect.impl.OResultSetTupleIterator;
+import org.hibernate.ogm.datastore.orientdb.dto.GenerationResult;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBMetrics;
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBOperation;
+import org.hibernate.ogm.dialect.query.spi.ClosableIterator;
+import org.hibernate.ogm.model.spi.Tuple;
 
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
@@ -31,15 +39,18 @@ public class NativeQueryUtil {
 
 	private static final Log log = LoggerFactory.getLogger();
 
-	public static List<ODocument> executeIdempotentQuery(ODatabaseDocument db, StringBuilder query) {
-		return executeIdempotentQuery( db, query.toString() );
+	public static List<ODocument> executeIdempotentQuery(NativeQuerySettings settings, ODatabaseDocument db, StringBuilder query) {
+		return executeIdempotentQuery( settings, db, query.toString() );
 	}
 
-	public static  List<ODocument> executeIdempotentQuery(ODatabaseDocument db, String query) {
-		return executeIdempotentQueryWithParams( db, query, Collections.<String, Object>emptyMap() );
+	public static  List<ODocument> executeIdempotentQuery(NativeQuerySettings settings, ODatabaseDocument db, String query) {
+		return executeIdempotentQueryWithParams( settings, db, query, Collections.<String, Object>emptyMap() );
 	}
 
-	public static List<ODocument> executeIdempotentQueryWithParams(ODatabaseDocument db, String query, Map<String, Object> queryParams) {
+	public static List<ODocument> executeIdempotentQueryWithParams(NativeQuerySettings settings, ODatabaseDocument db, String query,
+			Map<String, Object> queryParams) {
+		boolean measured = settings.isMeasured();
+		long start = measured ? System.nanoTime() : 0L;
 		List<ODocument> resultElements = null;
 		try ( OResultSet resultSet = db.query( query, queryParams ) ) {
 			resultElements = resultSet.elementStream()
@@ -56,17 +67,110 @@ public class NativeQueryUtil {
 		catch (OCommandExecutionException e2) {
 			throw log.cannotExecuteQuery( query, e2 );
 		}
+		if ( measured ) {
+			long duration = System.nanoTime() - start;
+			if ( settings.getMetrics().isEnabled() ) {
+				recordQuery( settings.getMetrics(), duration, resultElements );
+			}
+			checkSlowQuery( settings, db, query, queryParams, resultElements.size(), duration, true );
+		}
+		return resultElements;
+	}
+
+	/**
+	 * Open result set of idempotent query. Documents are not loaded to memory, caller must close the iterator. The
+	 * query is measured and checked by log of slow queries when the iterator is closed.
+	 *
+	 * @param settings settings of native queries
+	 * @param db instance of OrientDB
+	 * @param query the query
+	 * @param queryParams values of named parameters
+	 * @param className name of class of the query for metrics. Can be {@code null}.
+	 * @return iterator through open result set
+	 */
+	public static ClosableIterator<Tuple> openIdempotentQuery(NativeQuerySettings settings, ODatabaseDocument db, String query,
+			Map<String, Object> queryParams, String className) {
+		long start = settings.isMeasured() ? System.nanoTime() : 0L;
+		try {
+			OResultSet resultSet = db.query( query, queryParams );
+			return new OResultSetTupleIterator( resultSet, settings, className, start, db, query, queryParams );
+		}
+		catch (OCommandSQLParsingException e1) {
+			throw log.cannotParseQuery( query, e1 );
+		}
+		catch (OCommandExecutionException e2) {
+			throw log.cannotExecuteQuery( query, e2 );
+		}
+	}
+
+	/**
+	 * Execute idempotent query with positional parameters ('?').
+	 * <p>
+	 * The query must be a template: values are never inlined in the query string, so the same string is used for all
+	 * executions and OrientDB can reuse the parsed statement from its statement cache.
+	 * </p>
+	 *
+	 * @param settings settings of native queries
+	 * @param db instance of OrientDB
+	 * @param query template of the query
+	 * @param queryParams values of the positional parameters
+	 * @return list of loaded documents
+	 */
+	public static List<ODocument> executeIdempotentQueryWithParams(NativeQuerySettings settings, ODatabaseDocument db, String query,
+			Object... queryParams) {
+		boolean measured = settings.isMeasured();
+		long start = measured ? System.nanoTime() : 0L;
+		List<ODocument> resultElements = null;
+		try ( OResultSet resultSet = db.query( query, queryParams ) ) {
+			resultElements = resultSet.elementStream()
+					.map( element -> (ODocument) element )
+					.collect( Collectors.toList() );
+			log.debugf( "load documents: %d", resultElements.size() );
+		}
+		catch (OCommandSQLParsingException e1) {
+			throw log.cannotParseQuery( query, e1 );
+		}
+		catch (OCommandExecutionException e2) {
+			throw log.cannotExecuteQuery( query, e2 );
+		}
+		if ( measured ) {
+			long duration = System.nanoTime() - start;
+			if ( settings.getMetrics().isEnabled() ) {
+				recordQuery( settings.getMetrics(), duration, resultElements );
+			}
+			checkSlowQuery( settings, db, query, queryParams, resultElements.size(), duration, true );
+		}
 		return resultElements;
 	}
 
-	public static ODocument executeNonIdempotentQuery(ODatabaseDocument db, StringBuilder query) {
-		return executeNonIdempotentQuery( db, query.toString() );
+	public static ODocument executeNonIdempotentQuery(NativeQuerySettings settings, ODatabaseDocument db, StringBuilder query) {
+		return executeNonIdempotentQuery( settings, db, query.toString() );
+	}
+
+	public static ODocument executeNonIdempotentQuery(NativeQuerySettings settings, ODatabaseDocument db, GenerationResult query) {
+		return executeNonIdempotentQueryWithParams( settings, db, query.getExecutionQuery(), query.getPreparedStatementParamsArray() );
+	}
+
+	public static ODocument executeNonIdempotentQuery(NativeQuerySettings settings, ODatabaseDocument db, String query) {
+		return executeNonIdempotentQueryWithParams( settings, db, query );
 	}
 
-	public static ODocument executeNonIdempotentQuery(ODatabaseDocument db, String query) {
+	/**
+	 * Execute non-idempotent query (command) with positional parameters ('?').
+	 *
+	 * @param settings settings of native queries
+	 * @param db instance of OrientDB
+	 * @param query template of the query
+	 * @param queryParams values of the positional parameters
+	 * @return first document of the result
+	 */
+	public static ODocument executeNonIdempotentQueryWithParams(NativeQuerySettings settings, ODatabaseDocument db, String query,
+			Object... queryParams) {
 		log.debugf( "executeNonIdempotentQuery: NonIdempotentQuery: %s", query );
+		boolean measured = settings.isMeasured();
+		long start = measured ? System.nanoTime() : 0L;
 		ODocument result  = null;
-		try ( OResultSet resultSet = db.command( query ) ) {
+		try ( OResultSet resultSet = db.command( query, queryParams ) ) {
 			result  = (ODocument) resultSet.next().toElement();
 			log.debugf( "executeNonIdempotentQuery: result: %s", result.toJSON() );
 		}
@@ -76,6 +180,189 @@ public class NativeQueryUtil {
 		catch (OCommandExecutionException e2) {
 			throw log.cannotExecuteQuery( query, e2 );
 		}
+		if ( measured ) {
+			long duration = System.nanoTime() - start;
+			if ( settings.getMetrics().isEnabled() ) {
+				settings.getMetrics().record( OrientDBOperation.NATIVE_COMMAND, result != null ? result.getClassName() : null,
+						duration, result != null ? 1 : 0, result != null ? result.getSize() : 0 );
+			}
+			checkSlowQuery( settings, db, query, queryParams, result != null ? 1 : 0, duration, true );
+		}
 		return result;
 	}
+
+	/**
+	 * Execute the queries as one SQL script (one request to the datastore).
+	 * <p>
+	 * Positional parameters ('?') of the queries are converted to named parameters of the script. If there is no
+	 * active transaction, the script is wrapped into {@code BEGIN; ... COMMIT;}.
+	 * </p>
+	 *
+	 * @param settings settings of native queries
+	 * @param db instance of OrientDB
+	 * @param queries queries (templates with positional parameters)
+	 */
+	public static void executeScript(NativeQuerySettings settings, ODatabaseDocument db, List<GenerationResult> queries) {
+		if ( queries.isEmpty() ) {
+			return;
+		}
+		Map<String, Object> scriptParams = new HashMap<>();
+		String script = buildScript( queries, !db.getTransaction().isActive(), scriptParams );
+		log.debugf( "executeScript: statements: %d; script: %s", queries.size(), script );
+		boolean measured = settings.isMeasured();
+		long start = measured ? System.nanoTime() : 0L;
+		try ( OResultSet resultSet = db.execute( "sql", script, scriptParams ) ) {
+			log.debugf( "executeScript: has result: %b", resultSet.hasNext() );
+		}
+		catch (OCommandSQLParsingException e1) {
+			throw log.cannotParseQuery( script, e1 );
+		}
+		catch (OCommandExecutionException e2) {
+			throw log.cannotExecuteQuery( script, e2 );
+		}
+		if ( measured ) {
+			long duration = System.nanoTime() - start;
+			if ( settings.getMetrics().isEnabled() ) {
+				settings.getMetrics().record( OrientDBOperation.NATIVE_SCRIPT, null, duration, queries.size(), 0 );
+			}
+			// the script is not explained: EXPLAIN supports only one statement
+			checkSlowQuery( settings, db, script, scriptParams, queries.size(), duration, false );
+		}
+	}
+
+	/**
+	 * Build SQL script from the queries. Positional parameters ('?') of all queries are numbered in order of their
+	 * appearance and converted to named parameters {@code :p0}, {@code :p1}, ... Quoted literals are not changed.
+	 *
+	 * @param queries queries (templates with positional parameters)
+	 * @param wrapIntoTransaction wrap the script into {@code BEGIN; ... COMMIT;}
+	 * @param scriptParams named parameters of the script. Values of positional parameters are added to the map.
+	 * @return text of the script
+	 */
+	public static String buildScript(List<GenerationResult> queries, boolean wrapIntoTransaction, Map<String, Object> scriptParams) {
+		StringBuilder script = new StringBuilder( queries.size() * 100 );
+		if ( wrapIntoTransaction ) {
+			script.append( "BEGIN;\n" );
+		}
+		for ( GenerationResult query : queries ) {
+			String template = query.getExecutionQuery();
+			List<Object> params = query.getPreparedStatementParams();
+			int paramIndex = 0;
+			char quote = 0;
+			for ( int i = 0; i < template.length(); i++ ) {
+				char c = template.charAt( i );
+				if ( quote != 0 ) {
+					// '?' in literals is not parameter
+					script.append( c );
+					if ( c == '\\' && i + 1 < template.length() ) {
+						script.append( template.charAt( ++i ) );
+					}
+					else if ( c == quote ) {
+						quote = 0;
+					}
+				}
+				else if ( c == '\'' || c == '"' || c == '`' ) {
+					quote = c;
+					script.append( c );
+				}
+				else if ( c == '?' ) {
+					String paramName = "p" + scriptParams.size();
+					script.append( ':' ).append( paramName );
+					scriptParams.put( paramName, params.get( paramIndex++ ) );
+				}
+				else {
+					script.append( c );
+				}
+			}
+			script.append( ";\n" );
+		}
+		if ( wrapIntoTransaction ) {
+			script.append( "COMMIT;\n" );
+		}
+		return script.toString();
+	}
+
+	private static void recordQuery(OrientDBMetrics metrics, long duration, List<ODocument> documents) {
+		long bytes = 0;
+		for ( ODocument document : documents ) {
+			bytes += document.getSize();
+		}
+		metrics.record( OrientDBOperation.NATIVE_QUERY, null, duration, documents.size(), bytes );
+	}
+
+	/**
+	 * Log the query if it is slow. The query is logged as template with types of parameters (values of parameters
+	 * are not logged). If it is configured, the plan of the query is logged too.
+	 *
+	 * @param settings settings of native queries
+	 * @param db instance of OrientDB
+	 * @param query template of the query
+	 * @param queryParams values of parameters (map of named parameters or array of positional parameters)
+	 * @param rows number of returned or changed documents
+	 * @param durationNanos duration of the query in nanoseconds
+	 */
+	public static void checkSlowQuery(NativeQuerySettings settings, ODatabaseDocument db, String query, Object queryParams, long rows,
+			long durationNanos) {
+		checkSlowQuery( settings, db, query, queryParams, rows, durationNanos, true );
+	}
+
+	private static void checkSlowQuery(NativeQuerySettings settings, ODatabaseDocument db, String query, Object queryParams, long rows,
+			long durationNanos, boolean explainable) {
+		if ( !settings.isSlow( durationNanos ) ) {
+			return;
+		}
+		log.slowQuery( TimeUnit.NANOSECONDS.toMillis( durationNanos ), rows, query, describeParameters( queryParams ) );
+		if ( explainable && settings.isExplainSlowQueries() && db != null ) {
+			log.slowQueryPlan( query, explain( db, query, queryParams ) );
+		}
+	}
+
+	/**
+	 * Describe shape of parameters: names and types of values
+	 *
+	 * @param queryParams map of named parameters or array of positional parameters
+	 * @return description
+	 */
+	public static String describeParameters(Object queryParams) {
+		StringBuilder description = new StringBuilder();
+		if ( queryParams instanceof Map ) {
+			description.append( '{' );
+			for ( Map.Entry<?, ?> param : ( (Map<?, ?>) queryParams ).entrySet() ) {
+				if ( description.length() > 1 ) {
+					description.append( ", " );
+				}
+				description.append( param.getKey() ).append( ": " ).append( describeType( param.getValue() ) );
+			}
+			description.append( '}' );
+		}
+		else if ( queryParams instanceof Object[] ) {
+			description.append( '[' );
+			for ( Object param : (Object[]) queryParams ) {
+				if ( description.length() > 1 ) {
+					description.append( ", " );
+				}
+				description.append( describeType( param ) );
+			}
+			description.append( ']' );
+		}
+		return description.toString();
+	}
+
+	private static String describeType(Object value) {
+		return value == null ? "null" : value.getClass().getSimpleName();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static String explain(ODatabaseDocument db, String query, Object queryParams) {
+		String explainQuery = "EXPLAIN " + query;
+		try ( OResultSet resultSet = queryParams instanceof Map
+				? db.command( explainQuery, (Map<String, Object>) queryParams )
+				: db.command( explainQuery, (Object[]) queryParams ) ) {
+			return resultSet.hasNext() ? String.valueOf( resultSet.next().<Object>getProperty( "executionPlanAsString" ) ) : null;
+		}
+		catch (RuntimeException e) {
+			log.debugf( e, "cannot explain query %s", query );
+			return null;
+		}
+	}
 }
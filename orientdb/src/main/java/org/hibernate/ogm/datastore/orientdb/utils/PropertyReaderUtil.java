@@ -10,11 +10,17 @@ import java.util.Set;
 
 import org.hibernate.ogm.cfg.OgmProperties;
 import org.hibernate.ogm.datastore.orientdb.OrientDBProperties;
+import org.hibernate.ogm.datastore.orientdb.OrientDBProperties.ConnectionBindingEnum;
 import org.hibernate.ogm.datastore.orientdb.OrientDBProperties.DatabaseTypeEnum;
+import org.hibernate.ogm.datastore.orientdb.OrientDBProperties.SequenceTypeEnum;
 import org.hibernate.ogm.datastore.orientdb.OrientDBProperties.StorageModeEnum;
+import org.hibernate.ogm.datastore.orientdb.OrientDBProperties.WriteModeEnum;
 import org.hibernate.ogm.datastore.orientdb.constant.OrientDBConstant;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBMetrics;
+import org.hibernate.ogm.datastore.orientdb.metrics.impl.DisabledMetrics;
+import org.hibernate.ogm.datastore.orientdb.metrics.impl.MetricsShortNameResolver;
 import org.hibernate.ogm.util.configurationreader.spi.ConfigurationPropertyReader;
 
 public class PropertyReaderUtil {
@@ -67,6 +73,91 @@ public class PropertyReaderUtil {
 				.getValue();
 	}
 
+	public static Integer readSequenceBlockSizeProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.SEQUENCE_BLOCK_SIZE, Integer.class )
+				.withDefault( OrientDBConstant.DEFAULT_SEQUENCE_BLOCK_SIZE )
+				.getValue();
+	}
+
+	public static SequenceTypeEnum readSequenceTypeProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.SEQUENCE_TYPE, SequenceTypeEnum.class )
+				.withDefault( SequenceTypeEnum.ORDERED )
+				.getValue();
+	}
+
+	public static Integer readSequenceCacheSizeProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.SEQUENCE_CACHE_SIZE, Integer.class )
+				.withDefault( OrientDBConstant.DEFAULT_SEQUENCE_CACHE_SIZE )
+				.getValue();
+	}
+
+	public static ConnectionBindingEnum readConnectionBindingProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.CONNECTION_BINDING, ConnectionBindingEnum.class )
+				.withDefault( ConnectionBindingEnum.THREAD )
+				.getValue();
+	}
+
+	public static Boolean readPoolJmxEnabledProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.POOL_JMX_ENABLED, Boolean.class )
+				.withDefault( Boolean.FALSE )
+				.getValue();
+	}
+
+	public static Integer readPoolWarmUpSizeProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.POOL_WARMUP_SIZE, Integer.class )
+				.withDefault( 0 )
+				.getValue();
+	}
+
+	public static String readPoolWarmUpQueriesProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.POOL_WARMUP_QUERIES, String.class )
+				.getValue();
+	}
+
+	public static Integer readRetryMaxAttemptsProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.RETRY_MAX_ATTEMPTS, Integer.class )
+				.withDefault( 1 )
+				.getValue();
+	}
+
+	public static Integer readRetryInitialBackoffProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.RETRY_INITIAL_BACKOFF, Integer.class )
+				.withDefault( OrientDBConstant.DEFAULT_RETRY_INITIAL_BACKOFF )
+				.getValue();
+	}
+
+	public static Integer readRetryMaxBackoffProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.RETRY_MAX_BACKOFF, Integer.class )
+				.withDefault( OrientDBConstant.DEFAULT_RETRY_MAX_BACKOFF )
+				.getValue();
+	}
+
+	public static Integer readBulkChunkSizeProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.BULK_CHUNK_SIZE, Integer.class )
+				.withDefault( OrientDBConstant.DEFAULT_BULK_CHUNK_SIZE )
+				.getValue();
+	}
+
+	public static Integer readSlowQueryThresholdProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.SLOW_QUERY_THRESHOLD, Integer.class )
+				.withDefault( OrientDBConstant.DEFAULT_SLOW_QUERY_THRESHOLD )
+				.getValue();
+	}
+
+	public static Boolean readSlowQueryExplainProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.SLOW_QUERY_EXPLAIN, Boolean.class )
+				.withDefault( Boolean.FALSE )
+				.getValue();
+	}
+
+	public static OrientDBMetrics readMetricsProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.METRICS, OrientDBMetrics.class )
+				.instantiate()
+				.withDefaultImplementation( DisabledMetrics.class )
+				.withShortNameResolver( MetricsShortNameResolver.INSTANCE )
+				.getValue();
+	}
+
 	public static Boolean readCreateDatabaseProperty(ConfigurationPropertyReader propertyReader) {
 		return propertyReader.property( OgmProperties.CREATE_DATABASE, Boolean.class )
 				.withDefault( Boolean.FALSE )
@@ -90,4 +181,10 @@ public class PropertyReaderUtil {
 				.getValue();
 	}
 
+	public static WriteModeEnum readWriteModeProperty(ConfigurationPropertyReader propertyReader) {
+		return propertyReader.property( OrientDBProperties.WRITE_MODE, WriteModeEnum.class )
+				.withDefault( WriteModeEnum.SQL )
+				.getValue();
+	}
+
 }
@@ -6,6 +6,10 @@
  */
 package org.hibernate.ogm.datastore.orientdb.utils;
 
+import java.util.function.BooleanSupplier;
+
+import org.hibernate.ogm.model.spi.Tuple.SnapshotType;
+
 /**
  * Utility class for define type of query (insert or update)
  *
@@ -18,26 +22,29 @@ public class QueryTypeDefiner {
 	 * Enumeration with query types
 	 */
 	public static enum QueryType {
-		INSERT, UPDATE, ERROR;
+		INSERT, UPDATE;
 	}
 
 	/**
-	 * define type of query
+	 * define type of query by state of snapshot. The database is asked only if the state of snapshot is unknown.
 	 *
-	 * @param existsInDB is primary key found in database?
-	 * @param isNewSnapshot is new snapshot?
+	 * @param snapshotType type of snapshot of the tuple
+	 * @param isPersistentDocument has the document of the snapshot a persistent identity (is it loaded from db)?
+	 * @param existsInDB check of existence of primary key in database
 	 * @return type
 	 */
-	public static QueryType define(boolean existsInDB, boolean isNewSnapshot) {
-		QueryType type = QueryType.ERROR;
-		if ( existsInDB ) {
-			type = QueryType.UPDATE;
+	public static QueryType define(SnapshotType snapshotType, boolean isPersistentDocument, BooleanSupplier existsInDB) {
+		if ( isPersistentDocument ) {
+			return QueryType.UPDATE;
 		}
-		else
-		if ( isNewSnapshot && !existsInDB ) {
-			type = QueryType.INSERT;
+		switch ( snapshotType ) {
+			case INSERT:
+				return QueryType.INSERT;
+			case UPDATE:
+				return QueryType.UPDATE;
+			default:
+				return existsInDB.getAsBoolean() ? QueryType.UPDATE : QueryType.INSERT;
 		}
-		return type;
 	}
 
 }
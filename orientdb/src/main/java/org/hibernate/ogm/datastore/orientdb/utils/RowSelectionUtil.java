@@ -0,0 +1,88 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.utils;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
+import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+
+/**
+ * Utility class for pushing down of row selection (first row and max rows) to native query by {@code SKIP} and
+ * {@code LIMIT}.
+ * <p>
+ * If the query is {@code SELECT} or {@code MATCH} without own {@code SKIP}, {@code LIMIT} or clauses that must follow
+ * them ({@code FETCHPLAN}, {@code TIMEOUT}, {@code LOCK}, {@code PARALLEL}, {@code NOCACHE}), they are appended to the
+ * query. Otherwise the query is wrapped as subquery, so own clauses of the query are applied first. Values are passed
+ * as named parameters, so the text of the query is the same for all pages.
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class RowSelectionUtil {
+
+	/**
+	 * Name of parameter with number of skipped rows
+	 */
+	public static final String SKIP_PARAMETER = "ogmRowSelectionSkip";
+
+	/**
+	 * Name of parameter with max number of rows
+	 */
+	public static final String LIMIT_PARAMETER = "ogmRowSelectionLimit";
+
+	private static final Log log = LoggerFactory.getLogger();
+	private static final Pattern QUOTED_PATTERN = Pattern.compile( "'(?:[^'\\\\]|\\\\.)*'|\"(?:[^\"\\\\]|\\\\.)*\"|`(?:[^`\\\\]|\\\\.)*`" );
+	private static final Pattern TRAILING_CLAUSE_PATTERN = Pattern.compile( "(?i)\\b(SKIP|LIMIT|FETCHPLAN|TIMEOUT|LOCK|PARALLEL|NOCACHE)\\b" );
+	private static final Pattern APPENDABLE_QUERY_PATTERN = Pattern.compile( "(?i)^(SELECT|MATCH)\\b.*", Pattern.DOTALL );
+
+	/**
+	 * Apply row selection to the query
+	 *
+	 * @param query native query
+	 * @param firstRow number of first row (can be null)
+	 * @param maxRows max number of rows (can be null)
+	 * @param queryParams named parameters of the query. Parameters of row selection are added to the map.
+	 * @return query with {@code SKIP} and {@code LIMIT}
+	 */
+	public static String applyRowSelection(String query, Integer firstRow, Integer maxRows, Map<String, Object> queryParams) {
+		boolean hasFirstRow = firstRow != null && firstRow > 0;
+		boolean hasMaxRows = maxRows != null && maxRows >= 0;
+		if ( !hasFirstRow && !hasMaxRows ) {
+			return query;
+		}
+		String trimmedQuery = query.trim();
+		while ( trimmedQuery.endsWith( ";" ) ) {
+			trimmedQuery = trimmedQuery.substring( 0, trimmedQuery.length() - 1 ).trim();
+		}
+		StringBuilder pagedQuery = new StringBuilder( trimmedQuery.length() + 60 );
+		if ( mustBeWrapped( trimmedQuery ) ) {
+			pagedQuery.append( "SELECT FROM (" ).append( trimmedQuery ).append( ")" );
+		}
+		else {
+			pagedQuery.append( trimmedQuery );
+		}
+		if ( hasFirstRow ) {
+			pagedQuery.append( " SKIP :" ).append( SKIP_PARAMETER );
+			queryParams.put( SKIP_PARAMETER, firstRow );
+		}
+		if ( hasMaxRows ) {
+			pagedQuery.append( " LIMIT :" ).append( LIMIT_PARAMETER );
+			queryParams.put( LIMIT_PARAMETER, maxRows );
+		}
+		log.debugf( "applyRowSelection: query: %s", pagedQuery );
+		return pagedQuery.toString();
+	}
+
+	private static boolean mustBeWrapped(String query) {
+		if ( !APPENDABLE_QUERY_PATTERN.matcher( query ).matches() ) {
+			return true;
+		}
+		return TRAILING_CLAUSE_PATTERN.matcher( QUOTED_PATTERN.matcher( query ).replaceAll( "''" ) ).find();
+	}
+}
@@ -6,14 +6,27 @@
  */
 package org.hibernate.ogm.datastore.orientdb.utils;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
 import com.orientechnologies.orient.core.metadata.OMetadata;
-import com.orientechnologies.orient.core.metadata.function.OFunction;
 import com.orientechnologies.orient.core.metadata.sequence.OSequence;
+import com.orientechnologies.orient.core.metadata.sequence.OSequence.CreateParams;
+import com.orientechnologies.orient.core.metadata.sequence.OSequence.SEQUENCE_TYPE;
+import com.orientechnologies.orient.core.metadata.sequence.OSequenceLibrary;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQLParsingException;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
 
-import org.hibernate.ogm.datastore.orientdb.constant.OrientDBConstant;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.orientdb.sequence.impl.SequenceBlock;
 
 /**
  * Utility class for working with sequences
@@ -25,24 +38,104 @@ public class SequenceUtil {
 	private static final Log log = LoggerFactory.getLogger();
 
 	/**
-	 * Get next value from sequence
+	 * fields of documents of class 'OSequence'. They are used by OrientDB for store state of sequences.
+	 */
+	private static final String SEQUENCE_CLASS = "OSequence";
+	private static final String SEQUENCE_NAME_FIELD = "name";
+	private static final String SEQUENCE_VALUE_FIELD = "value";
+	private static final String SEQUENCE_INCREMENT_FIELD = "incr";
+
+	private static final int MAX_TABLE_BLOCK_ATTEMPTS = 10;
+
+	private static final String RESERVE_SEQUENCE_BLOCK_QUERY = "UPDATE " + SEQUENCE_CLASS
+			+ " SET " + SEQUENCE_VALUE_FIELD + " = " + SEQUENCE_VALUE_FIELD + " + ifnull(" + SEQUENCE_INCREMENT_FIELD + ", 1) * :size"
+			+ " RETURN AFTER WHERE " + SEQUENCE_NAME_FIELD + ".toUpperCase() = :name";
+	private static final String STORED_SEQUENCE_VALUE_QUERY = "SELECT " + SEQUENCE_VALUE_FIELD + " FROM " + SEQUENCE_CLASS
+			+ " WHERE " + SEQUENCE_NAME_FIELD + ".toUpperCase() = ?";
+
+	/**
+	 * Create the sequence or bring the existing sequence to the required type and cache size.
+	 * <p>
+	 * Type of sequence cannot be changed, so the sequence of other type is dropped and created again. The new sequence
+	 * starts after all values, that could be handed out by the old one: values cached by {@code CACHED} sequence and
+	 * blocks reserved by {@link #reserveSequenceBlock(ODatabaseDocument, String, int)} are ahead of the current value
+	 * of the loaded sequence, so the greater of the current and the stored value is used.
+	 * </p>
 	 *
 	 * @param db instance of OrientDB
 	 * @param seqName name of sequence
-	 * @return next value of the sequence
+	 * @param startValue first value of new sequence
+	 * @param incValue increment of sequence ({@code 0} for default increment)
+	 * @param cacheSize cache size of {@code CACHED} sequence or {@code null} for {@code ORDERED} sequence
+	 * @return the sequence
 	 */
-	public static synchronized long ____getNextSequenceValue(ODatabaseDocument db, String seqName) {
-		OMetadata metadata = db.getMetadata();
-		OFunction getNextSeqValue = metadata.getFunctionLibrary().getFunction( OrientDBConstant.GET_NEXT_SEQ_VALUE_FUNC );
-		if ( getNextSeqValue == null ) {
-			metadata.reload();
-			getNextSeqValue = metadata.getFunctionLibrary().getFunction( OrientDBConstant.GET_NEXT_SEQ_VALUE_FUNC );
+	public static OSequence defineSequence(ODatabaseDocument db, String seqName, int startValue, int incValue, Integer cacheSize) {
+		OSequenceLibrary sequenceLibrary = db.getMetadata().getSequenceLibrary();
+		OSequence seq = sequenceLibrary.getSequence( seqName );
+		SEQUENCE_TYPE type = cacheSize == null ? SEQUENCE_TYPE.ORDERED : SEQUENCE_TYPE.CACHED;
+		if ( seq == null ) {
+			CreateParams p = new CreateParams();
+			p.setStart( (long) ( startValue == 0 ? 0 : startValue - incValue ) );
+			if ( incValue > 0 ) {
+				p.setIncrement( incValue );
+			}
+			if ( cacheSize != null ) {
+				p.setCacheSize( cacheSize );
+			}
+			seq = sequenceLibrary.createSequence( seqName, type, p );
+			log.debugf( "sequence %s created. type: %s; current value: %d ", seq.getName(), type, seq.current() );
 		}
-		Number value = (Number) getNextSeqValue.execute( seqName.toUpperCase() );
-		return value.longValue();
+		else if ( seq.getSequenceType() != type ) {
+			CreateParams p = new CreateParams();
+			p.setStart( Math.max( seq.current(), getStoredSequenceValue( db, seqName ) ) );
+			if ( incValue > 0 ) {
+				p.setIncrement( incValue );
+			}
+			if ( cacheSize != null ) {
+				p.setCacheSize( cacheSize );
+			}
+			sequenceLibrary.dropSequence( seqName );
+			seq = sequenceLibrary.createSequence( seqName, type, p );
+			log.infof( "sequence %s migrated to type %s. current value: %d ", seq.getName(), type, seq.current() );
+		}
+		else if ( cacheSize != null ) {
+			CreateParams p = new CreateParams();
+			p.setCacheSize( cacheSize );
+			if ( seq.updateParams( p ) ) {
+				log.debugf( "cache size of sequence %s changed to %d", seq.getName(), cacheSize );
+			}
+		}
+		return seq;
 	}
 
-	public static synchronized long getNextSequenceValue(ODatabaseDocument db, String seqName) {
+	/**
+	 * Get value of sequence, that is stored in the database
+	 *
+	 * @param db instance of OrientDB
+	 * @param seqName name of sequence
+	 * @return stored value or {@link Long#MIN_VALUE} if the sequence is not stored
+	 */
+	private static long getStoredSequenceValue(ODatabaseDocument db, String seqName) {
+		try ( OResultSet resultSet = db.query( STORED_SEQUENCE_VALUE_QUERY, seqName.toUpperCase( Locale.ENGLISH ) ) ) {
+			if ( resultSet.hasNext() ) {
+				Number value = resultSet.next().getProperty( SEQUENCE_VALUE_FIELD );
+				if ( value != null ) {
+					return value.longValue();
+				}
+			}
+			return Long.MIN_VALUE;
+		}
+	}
+
+	/**
+	 * Get next value from sequence. The call is not synchronized: concurrent calls are serialized by OrientDB for
+	 * each sequence.
+	 *
+	 * @param db instance of OrientDB
+	 * @param seqName name of sequence
+	 * @return next value of the sequence
+	 */
+	public static long getNextSequenceValue(ODatabaseDocument db, String seqName) {
 		OMetadata metadata = db.getMetadata();
 		OSequence getNextSeqValue = metadata.getSequenceLibrary().getSequence( seqName.toUpperCase() );
 		if ( getNextSeqValue == null ) {
@@ -53,7 +146,42 @@ public class SequenceUtil {
 	}
 
 	/**
-	 * Get next value from table generator. Stored procedure 'getTableSeqValue' uses for generate value
+	 * Reserve block of values of sequence by one request. The sequence is moved forward by {@code size} increments,
+	 * the block contains values that would be returned by {@code size} calls of
+	 * {@link #getNextSequenceValue(ODatabaseDocument, String)}.
+	 *
+	 * @param db instance of OrientDB
+	 * @param seqName name of sequence
+	 * @param size number of values in the block
+	 * @return reserved block
+	 */
+	public static SequenceBlock reserveSequenceBlock(ODatabaseDocument db, String seqName, int size) {
+		String name = seqName.toUpperCase( Locale.ENGLISH );
+		Map<String, Object> params = new HashMap<>();
+		params.put( "name", name );
+		params.put( "size", size );
+		try ( OResultSet resultSet = db.command( RESERVE_SEQUENCE_BLOCK_QUERY, params ) ) {
+			if ( !resultSet.hasNext() ) {
+				throw log.sequenceNotFound( name );
+			}
+			OResult sequence = resultSet.next();
+			long lastValue = ( (Number) sequence.getProperty( SEQUENCE_VALUE_FIELD ) ).longValue();
+			Number increment = sequence.getProperty( SEQUENCE_INCREMENT_FIELD );
+			long inc = increment == null ? 1L : increment.longValue();
+			SequenceBlock block = new SequenceBlock( lastValue - inc * ( size - 1 ), inc, size );
+			log.debugf( "reserveSequenceBlock: sequence: %s; block: %s", name, block );
+			return block;
+		}
+		catch (OCommandSQLParsingException e1) {
+			throw log.cannotParseQuery( RESERVE_SEQUENCE_BLOCK_QUERY, e1 );
+		}
+		catch (OCommandExecutionException e2) {
+			throw log.cannotExecuteQuery( RESERVE_SEQUENCE_BLOCK_QUERY, e2 );
+		}
+	}
+
+	/**
+	 * Get next value from table generator
 	 *
 	 * @param db instance of OrientDB
 	 * @param seqTable name of table that uses for generate values
@@ -64,17 +192,62 @@ public class SequenceUtil {
 	 * @param inc value of increment
 	 * @return next value of the sequence
 	 */
+	public static long getNextTableValue(ODatabaseDocument db, String seqTable, String pkColumnName, String pkColumnValue,
+			String valueColumnName, int initValue, int inc) {
+		return reserveTableBlock( db, seqTable, pkColumnName, pkColumnValue, valueColumnName, initValue, inc, 1 ).getFirst();
+	}
 
-	public static synchronized long getNextTableValue(ODatabaseDocument db, String seqTable, String pkColumnName, String pkColumnValue,
-			String valueColumnName,
-			Integer initValue, Integer inc) {
-		OMetadata metadata = db.getMetadata();
-		OFunction getTableSeqValue = metadata.getFunctionLibrary().getFunction( OrientDBConstant.GET_TABLE_SEQ_VALUE_FUNC );
-		if ( getTableSeqValue == null ) {
-			metadata.reload();
-			getTableSeqValue = metadata.getFunctionLibrary().getFunction( OrientDBConstant.GET_TABLE_SEQ_VALUE_FUNC );
+	/**
+	 * Reserve block of values of table generator. The row of the generator is changed by Document API with optimistic
+	 * lock: if the row is changed concurrently, it is loaded again and the change is repeated. If there is no row, it
+	 * is created and the block starts from the initial value.
+	 * <p>
+	 * The connection must not have active transaction: otherwise the conflicts are raised only by commit and they are
+	 * not retried.
+	 * </p>
+	 *
+	 * @param db instance of OrientDB
+	 * @param seqTable name of table that uses for generate values
+	 * @param pkColumnName name of column that contains name of sequence
+	 * @param pkColumnValue value of name of sequence
+	 * @param valueColumnName name of column that contains value of sequence
+	 * @param initValue initial value
+	 * @param inc value of increment
+	 * @param size number of values in the block
+	 * @return reserved block
+	 */
+	public static SequenceBlock reserveTableBlock(ODatabaseDocument db, String seqTable, String pkColumnName, String pkColumnValue,
+			String valueColumnName, int initValue, int inc, int size) {
+		String query = "SELECT FROM " + seqTable + " WHERE " + pkColumnName + " = ?";
+		for ( int attempt = 1; ; attempt++ ) {
+			try {
+				ODocument row = null;
+				try ( OResultSet resultSet = db.query( query, pkColumnValue ) ) {
+					if ( resultSet.hasNext() ) {
+						row = (ODocument) resultSet.next().toElement();
+					}
+				}
+				long first;
+				if ( row == null ) {
+					row = new ODocument( seqTable );
+					row.field( pkColumnName, pkColumnValue );
+					first = initValue;
+				}
+				else {
+					first = ( (Number) row.field( valueColumnName ) ).longValue() + inc;
+				}
+				row.field( valueColumnName, first + (long) inc * ( size - 1 ) );
+				db.save( row );
+				SequenceBlock block = new SequenceBlock( first, inc, size );
+				log.debugf( "reserveTableBlock: table: %s; sequence: %s; block: %s", seqTable, pkColumnValue, block );
+				return block;
+			}
+			catch (OConcurrentModificationException | ORecordDuplicatedException e) {
+				if ( attempt >= MAX_TABLE_BLOCK_ATTEMPTS ) {
+					throw log.cannotReserveSequenceValues( pkColumnValue, e );
+				}
+				log.debugf( "reserveTableBlock: row of sequence %s changed concurrently. attempt: %d", pkColumnValue, attempt );
+			}
 		}
-		Number nextValue = (Number) getTableSeqValue.execute( seqTable, pkColumnName, pkColumnValue, valueColumnName, initValue, inc );
-		return nextValue.longValue();
 	}
 }
@@ -6,15 +6,14 @@
  */
 package org.hibernate.ogm.datastore.orientdb.utils;
 
-import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Calendar;
-import java.util.Date;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.codec.binary.Base64;
 import org.hibernate.ogm.datastore.orientdb.constant.OrientDBConstant;
 import org.hibernate.ogm.datastore.orientdb.dto.GenerationResult;
 import org.hibernate.ogm.datastore.orientdb.logging.impl.Log;
@@ -23,17 +22,19 @@ import org.hibernate.ogm.model.key.spi.EntityKey;
 import org.hibernate.ogm.model.spi.Tuple;
 
 import com.orientechnologies.orient.core.record.impl.ODocument;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
-import static org.hibernate.ogm.datastore.orientdb.utils.EntityKeyUtil.setFieldValue;
 import org.hibernate.ogm.model.key.spi.AssociationKey;
 
 /**
  * The class is generator of 'update' query.
+ * <p>
+ * The generated query is a template with positional parameters ('?'), so the query is the same for all updates of
+ * rows with the same set of columns.
+ * </p>
  *
  * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
- * @see <a href="http://orientdb.com/docs/2.2/SQL-Update.html">Update query in OrientDB</a>
+ * @see <a href="http://orientdb.com/docs/3.0.x/sql/SQL-Update.html">Update query in OrientDB</a>
  */
 
 public class UpdateQueryGenerator {
@@ -49,30 +50,29 @@ public class UpdateQueryGenerator {
 	 * @see GenerationResult
 	 */
 	public GenerationResult generate(AssociationKey associationKey, Tuple tuple) {
-		Set<String> whereColumnNames = new HashSet<>();
+		Set<String> whereColumnNames = new LinkedHashSet<>();
 		whereColumnNames.addAll( Arrays.asList( associationKey.getColumnNames() ) );
 		whereColumnNames.addAll( Arrays.asList( associationKey.getMetadata().getRowKeyColumnNames() ) );
 		whereColumnNames.addAll( Arrays.asList( associationKey.getMetadata().getRowKeyIndexColumnNames() ) );
 
 		log.debugf( "generate: whereColumnNames : %s", whereColumnNames );
 
-		StringBuilder updateQuery = generateMainPart( associationKey.getTable(),
-				TupleUtil.toMap( tuple ), whereColumnNames.toArray( new String[1] ) );
+		List<Object> params = new ArrayList<>();
+		StringBuilder updateQuery = generateMainPart( associationKey.getTable(), TupleUtil.toMap( tuple ), params );
 		updateQuery.append( " return count" );
 		// generate 'where' part
 		updateQuery.append( " where " );
 
 		for ( Iterator<String> iterator = whereColumnNames.iterator(); iterator.hasNext(); ) {
 			String whereColumnName = iterator.next();
-			Object value = tuple.get( whereColumnName );
-			updateQuery.append( whereColumnName ).append( "=" );
-			setFieldValue( updateQuery, value );
+			updateQuery.append( whereColumnName ).append( " = ?" );
+			params.add( EntityKeyUtil.toParameterValue( tuple.get( whereColumnName ) ) );
 			if ( iterator.hasNext() ) {
 				updateQuery.append( " and " );
 			}
 		}
 
-		return new GenerationResult( updateQuery.toString() );
+		return new GenerationResult( updateQuery.toString(), params );
 	}
 
 	/**
@@ -99,15 +99,17 @@ public class UpdateQueryGenerator {
 	 */
 
 	public GenerationResult generate(String className, Map<String, Object> valuesMap, EntityKey primaryKey) {
-		StringBuilder updateQuery = generateMainPart( className, valuesMap, primaryKey.getColumnNames() );
+		List<Object> params = new ArrayList<>();
+		StringBuilder updateQuery = generateMainPart( className, valuesMap, params );
 
 		updateQuery.append( " where " );
 		log.debugf( "generate: primaryKey : %s", primaryKey );
 		updateQuery.append( EntityKeyUtil.generatePrimaryKeyPredicate( primaryKey ) );
-		return new GenerationResult( updateQuery.toString() );
+		Collections.addAll( params, EntityKeyUtil.generatePrimaryKeyParams( primaryKey ) );
+		return new GenerationResult( updateQuery.toString(), params );
 	}
 
-	private StringBuilder generateMainPart(String className, Map<String, Object> valuesMap, String[] primaryKeyColumnNames) {
+	private StringBuilder generateMainPart(String className, Map<String, Object> valuesMap, List<Object> params) {
 		StringBuilder updateQuery = new StringBuilder( 200 );
 		updateQuery.append( "update " ).append( className ).append( " set " );
 
@@ -126,55 +128,17 @@ public class UpdateQueryGenerator {
 
 		log.debugf( " generateMainPart: allColumnNames: %s;", allValuesMap.keySet() );
 		LinkedHashSet<String> allColumnNames = new LinkedHashSet<>( allValuesMap.keySet() );
-		// allColumnNames.removeAll( Arrays.asList( primaryKeyColumnNames ) );
 		allColumnNames.removeAll( OrientDBConstant.SYSTEM_FIELDS );
-		// allColumnNames.removeAll( OrientDBConstant.MAPPING_FIELDS.keySet() );
 		log.debugf( " generateMainPart: allColumnNames: %s;", allColumnNames );
 
-		for ( String columnName : allColumnNames ) {
-			Object columnValue = allValuesMap.get( columnName );
-			log.debugf( " field name: %s; value class: %s", columnName, ( columnValue != null ? columnValue.getClass() : "null" ) );
-			updateQuery.append( columnName ).append( "=" );
-			if ( columnValue == null ) {
-				updateQuery.append( OrientDBConstant.NULL_VALUE );
-			}
-			else if ( OrientDBConstant.BASE64_TYPES.contains( columnValue.getClass() ) ) {
-				updateQuery.append( "\"" );
-				if ( columnValue instanceof BigInteger ) {
-					updateQuery.append( new String( Base64.encodeBase64( ( (BigInteger) columnValue ).toByteArray() ) ) );
-				}
-				else if ( columnValue instanceof byte[] ) {
-					updateQuery.append( new String( Base64.encodeBase64( (byte[]) columnValue ) ) );
-				}
-				updateQuery.append( "\"" );
-			}
-			else if ( columnValue instanceof Date || columnValue instanceof Calendar ) {
-				Calendar calendar = null;
-				if ( columnValue instanceof Date ) {
-					calendar = Calendar.getInstance();
-					calendar.setTime( (Date) columnValue );
-				}
-				else if ( columnValue instanceof Calendar ) {
-					calendar = (Calendar) columnValue;
-				}
-				String formattedStr = ( FormatterUtil.getDateTimeFormater().get() ).format( calendar.getTime() );
-				updateQuery.append( "\"" ).append( formattedStr ).append( "\"" );
-			}
-			else if ( columnValue instanceof String ) {
-				updateQuery.append( "\"" ).append( columnValue ).append( "\"" );
-			}
-			else if ( columnValue instanceof Character ) {
-				updateQuery.append( "\"" ).append( ( (Character) columnValue ).charValue() ).append( "\"" );
-			}
-			else if ( columnValue instanceof ODocument ) {
-				updateQuery.append( columnValue );
-			}
-			else {
-				updateQuery.append( columnValue );
+		for ( Iterator<String> iterator = allColumnNames.iterator(); iterator.hasNext(); ) {
+			String columnName = iterator.next();
+			updateQuery.append( columnName ).append( " = ?" );
+			params.add( EntityKeyUtil.toParameterValue( allValuesMap.get( columnName ) ) );
+			if ( iterator.hasNext() ) {
+				updateQuery.append( ", " );
 			}
-			updateQuery.append( "," );
 		}
-		updateQuery.setCharAt( updateQuery.lastIndexOf( "," ), ' ' );
 		return updateQuery;
 	}
 
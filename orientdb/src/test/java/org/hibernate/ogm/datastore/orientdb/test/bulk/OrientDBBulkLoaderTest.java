@@ -0,0 +1,118 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.bulk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.ogm.datastore.orientdb.bulk.OrientDBBulkLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+
+/**
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class OrientDBBulkLoaderTest {
+
+	private static final String DATABASE = "bulk_loader_test";
+
+	private OrientDB orientDB;
+
+	@Before
+	public void setUp() {
+		orientDB = new OrientDB( "embedded:", OrientDBConfig.defaultConfig() );
+		orientDB.create( DATABASE, ODatabaseType.MEMORY );
+		try ( ODatabaseDocument db = open() ) {
+			OClass account = db.getMetadata().getSchema().createClass( "Account" );
+			account.createProperty( "number", OType.STRING );
+			account.createProperty( "city", OType.STRING );
+			account.createIndex( "Account_number_pk", OClass.INDEX_TYPE.UNIQUE, "number" );
+			account.createIndex( "Account_city", OClass.INDEX_TYPE.NOTUNIQUE, "city" );
+		}
+	}
+
+	@After
+	public void tearDown() {
+		orientDB.drop( DATABASE );
+		orientDB.close();
+	}
+
+	@Test
+	public void testLoadWithDeferredIndexes() {
+		try ( OrientDBBulkLoader loader = new OrientDBBulkLoader( open(), 10 ) ) {
+			loader.deferIndexes( "Account" );
+			try ( ODatabaseDocument db = open() ) {
+				assertNotNull( "Unique index must not be deferred", index( db, "Account_number_pk" ) );
+				assertNull( "Non-unique index must be deferred", index( db, "Account_city" ) );
+			}
+			for ( int i = 0; i < 25; i++ ) {
+				loader.insert( "Account", account( "n" + i, "city" + ( i % 3 ) ) );
+			}
+			assertEquals( 20, loader.getInsertedCount() );
+		}
+
+		try ( ODatabaseDocument db = open() ) {
+			assertEquals( 25, db.countClass( "Account" ) );
+			OIndex<?> index = index( db, "Account_city" );
+			assertNotNull( "Deferred index must be rebuilt", index );
+			assertEquals( OClass.INDEX_TYPE.NOTUNIQUE.name(), index.getType() );
+			assertEquals( Arrays.asList( "city" ), index.getDefinition().getFields() );
+			assertEquals( 25, index.getSize() );
+		}
+	}
+
+	@Test
+	public void testIndexesAreRebuiltIfCommitFails() {
+		OrientDBBulkLoader loader = new OrientDBBulkLoader( open(), 10 );
+		loader.deferIndexes( "Account" );
+		loader.insert( "Account", account( "n1", "city1" ) );
+		loader.insert( "Account", account( "n1", "city2" ) );
+		try {
+			loader.close();
+			fail( "Duplicate of primary key must fail the commit" );
+		}
+		catch (RuntimeException e) {
+			// expected
+		}
+
+		try ( ODatabaseDocument db = open() ) {
+			assertNotNull( "Deferred index must be rebuilt", index( db, "Account_city" ) );
+		}
+	}
+
+	private ODatabaseDocument open() {
+		return orientDB.open( DATABASE, "admin", "admin" );
+	}
+
+	private static OIndex<?> index(ODatabaseDocument db, String name) {
+		db.activateOnCurrentThread();
+		db.getMetadata().reload();
+		return db.getMetadata().getIndexManager().getIndex( name );
+	}
+
+	private static Map<String, Object> account(String number, String city) {
+		Map<String, Object> columns = new HashMap<>();
+		columns.put( "number", number );
+		columns.put( "city", city );
+		return columns;
+	}
+}
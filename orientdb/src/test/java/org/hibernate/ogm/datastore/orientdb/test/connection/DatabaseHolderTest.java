@@ -0,0 +1,56 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.hibernate.ogm.datastore.orientdb.OrientDBProperties.StorageModeEnum;
+import org.hibernate.ogm.datastore.orientdb.connection.DatabaseHolder;
+import org.junit.Test;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+
+/**
+ * Test checks that transactions of one thread share the connection of the thread, the connection is released by the
+ * last completed transaction and the released connection does not keep state of the transaction
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class DatabaseHolderTest {
+
+	@Test
+	public void testConnectionIsReleasedByLastTransaction() {
+		DatabaseHolder holder = new DatabaseHolder( "embedded:", "admin", "admin", 2, "database_holder_test", true,
+				StorageModeEnum.MEMORY );
+		ODatabaseDocument outer = holder.retain( 1L );
+		ODatabaseDocument nested = holder.retain( 2L );
+		assertSame( outer, nested );
+
+		holder.releaseTransaction( 2L );
+		assertFalse( "Connection is used by outer transaction", outer.isClosed() );
+		assertEquals( 1, holder.getStatistics().getSessionsInUse() );
+
+		holder.releaseTransaction( 1L );
+		assertTrue( outer.isClosed() );
+		assertEquals( 0, holder.getStatistics().getSessionsInUse() );
+	}
+
+	@Test
+	public void testDeferredTransactionIsDroppedWithConnection() {
+		DatabaseHolder holder = new DatabaseHolder( "embedded:", "admin", "admin", 2, "database_holder_test", true,
+				StorageModeEnum.MEMORY );
+		ODatabaseDocument database = holder.retain( 1L );
+		holder.deferTransaction( database );
+		// the session is closed without completion of the transaction
+		holder.release();
+		assertFalse( "Pooled connection must not keep deferred transaction", holder.cancelDeferredTransaction( database ) );
+		holder.releaseTransaction( 1L );
+	}
+}
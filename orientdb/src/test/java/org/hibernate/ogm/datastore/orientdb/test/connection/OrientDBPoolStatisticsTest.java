@@ -0,0 +1,53 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.ogm.datastore.orientdb.connection.OrientDBPoolStatisticsImpl;
+import org.junit.Test;
+
+/**
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class OrientDBPoolStatisticsTest {
+
+	@Test
+	public void testSessionsInUseAndHistogram() {
+		OrientDBPoolStatisticsImpl statistics = new OrientDBPoolStatisticsImpl( 10 );
+		Object session1 = new Object();
+		Object session2 = new Object();
+
+		statistics.acquired( session1, "thread 1", TimeUnit.MICROSECONDS.toNanos( 100 ) );
+		statistics.acquired( session2, "transaction 2", TimeUnit.MILLISECONDS.toNanos( 70 ) );
+		statistics.acquireFailed();
+
+		assertEquals( 10, statistics.getPoolSize() );
+		assertEquals( 2, statistics.getSessionsInUse() );
+		assertEquals( 2, statistics.getAcquireCount() );
+		assertEquals( 1, statistics.getAcquireTimeouts() );
+		assertEquals( 70, statistics.getMaxAcquireTimeMillis() );
+
+		Map<String, Long> histogram = statistics.getAcquireTimeHistogram();
+		assertEquals( Long.valueOf( 1 ), histogram.get( "<= 1 ms" ) );
+		assertEquals( Long.valueOf( 1 ), histogram.get( "<= 100 ms" ) );
+		assertEquals( Long.valueOf( 0 ), histogram.get( "> 5000 ms" ) );
+
+		Map<String, Long> ages = statistics.getSessionAgesMillis();
+		assertTrue( ages.containsKey( "thread 1" ) );
+		assertTrue( ages.containsKey( "transaction 2" ) );
+
+		statistics.released( session1 );
+		statistics.released( session1 );
+		assertEquals( 1, statistics.getSessionsInUse() );
+		assertEquals( 1, statistics.getSessionAgesMillis().size() );
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.dialect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.ogm.datastore.orientdb.dialect.impl.OrientDBEntityQueries;
+import org.hibernate.ogm.datastore.orientdb.utils.NativeQuerySettings;
+import org.hibernate.ogm.model.impl.DefaultEntityKeyMetadata;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+/**
+ * Test checks load of several entities by one query (multiget). Java types of values of keys differ from types of
+ * stored values.
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class OrientDBEntityQueriesTest {
+
+	private static final String DATABASE = "entity_queries_test";
+	private static final Date CREATED = new Date( 1500000000123L );
+
+	private OrientDB orientDB;
+	private ODatabaseDocument db;
+
+	@Before
+	public void setUp() {
+		orientDB = new OrientDB( "embedded:", OrientDBConfig.defaultConfig() );
+		orientDB.create( DATABASE, ODatabaseType.MEMORY );
+		db = orientDB.open( DATABASE, "admin", "admin" );
+
+		OClass account = db.getMetadata().getSchema().createClass( "Account" );
+		account.createProperty( "id", OType.LONG );
+		account.createProperty( "name", OType.STRING );
+		OClass payment = db.getMetadata().getSchema().createClass( "Payment" );
+		payment.createProperty( "code", OType.STRING );
+		payment.createProperty( "created", OType.DATETIME );
+		payment.createProperty( "amount", OType.DECIMAL );
+		for ( long id = 1; id <= 3; id++ ) {
+			db.save( new ODocument( "Account" ).field( "id", id ).field( "name", "account" + id ) );
+		}
+		db.save( new ODocument( "Payment" ).field( "code", "p1" ).field( "created", CREATED )
+				.field( "amount", new BigDecimal( "10.50" ) ) );
+		db.save( new ODocument( "Payment" ).field( "code", "p2" ).field( "created", CREATED )
+				.field( "amount", new BigDecimal( "20.00" ) ) );
+	}
+
+	@After
+	public void tearDown() {
+		db.close();
+		orientDB.drop( DATABASE );
+		orientDB.close();
+	}
+
+	@Test
+	public void testFindEntitiesByKeysOfOtherType() {
+		EntityKeyMetadata metadata = new DefaultEntityKeyMetadata( "Account", new String[]{ "id" } );
+		EntityKey[] keys = new EntityKey[]{
+				new EntityKey( metadata, new Object[]{ 3 } ),
+				new EntityKey( metadata, new Object[]{ 5 } ),
+				new EntityKey( metadata, new Object[]{ 1 } )
+		};
+		List<ODocument> documents = new OrientDBEntityQueries( metadata, NativeQuerySettings.DISABLED ).findEntities( db, keys );
+		assertEquals( 3, documents.size() );
+		assertEquals( "account3", documents.get( 0 ).field( "name" ) );
+		assertNull( documents.get( 1 ) );
+		assertEquals( "account1", documents.get( 2 ).field( "name" ) );
+	}
+
+	@Test
+	public void testFindEntitiesByCompositeKeys() {
+		EntityKeyMetadata metadata = new DefaultEntityKeyMetadata( "Payment", new String[]{ "id.code", "id.created", "id.amount" } );
+		EntityKey[] keys = new EntityKey[]{
+				new EntityKey( metadata, new Object[]{ "p2", new Timestamp( CREATED.getTime() ), new BigDecimal( "20" ) } ),
+				new EntityKey( metadata, new Object[]{ "p1", new Timestamp( CREATED.getTime() ), new BigDecimal( "10.5" ) } ),
+				new EntityKey( metadata, new Object[]{ "p3", new Timestamp( CREATED.getTime() ), BigDecimal.ONE } )
+		};
+		List<ODocument> documents = new OrientDBEntityQueries( metadata, NativeQuerySettings.DISABLED ).findEntities( db, keys );
+		assertEquals( 3, documents.size() );
+		assertEquals( "p2", documents.get( 0 ).field( "code" ) );
+		assertEquals( "p1", documents.get( 1 ).field( "code" ) );
+		assertNull( documents.get( 2 ) );
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.datastore.orientdb.impl.OrientDBDatastoreProvider;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.BuyingOrder;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.Customer;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.OrderItem;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.Pizza;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.Product;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.ProductType;
+import org.hibernate.ogm.datastore.orientdb.utils.NativeQueryUtil;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.dialect.query.spi.ClosableIterator;
+import org.hibernate.ogm.dialect.spi.GridDialect;
+import org.hibernate.ogm.model.impl.DefaultEntityKeyMetadata;
+import org.hibernate.ogm.model.spi.Tuple;
+import org.hibernate.ogm.utils.jpa.OgmJpaTestCase;
+import org.junit.Test;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+
+/**
+ * Test checks scan of all documents of class with several clusters
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class OrientDBForEachTupleTest extends OgmJpaTestCase {
+
+	private static final int PIZZA_COUNT = 10;
+
+	@Test
+	public void testForEachTupleScansClustersInCallingThread() {
+		SessionFactoryImplementor sessionFactory = getFactory().unwrap( SessionFactoryImplementor.class );
+		OrientDBDatastoreProvider provider = (OrientDBDatastoreProvider) sessionFactory.getServiceRegistry()
+				.getService( DatastoreProvider.class );
+		ODatabaseDocument db = provider.getCurrentDatabase();
+		NativeQueryUtil.executeNonIdempotentQuery( provider.getNativeQuerySettings(), db, "ALTER CLASS Pizza ADDCLUSTER pizza_extra" );
+		assertTrue( "Class must have several clusters",
+				db.getMetadata().getSchema().getClass( "Pizza" ).getPolymorphicClusterIds().length > 1 );
+
+		EntityManager em = getFactory().createEntityManager();
+		em.getTransaction().begin();
+		for ( int i = 0; i < PIZZA_COUNT; i++ ) {
+			Pizza pizza = new Pizza();
+			pizza.setName( "pizza" + i );
+			em.persist( pizza );
+		}
+		em.getTransaction().commit();
+		em.close();
+
+		GridDialect dialect = sessionFactory.getServiceRegistry().getService( GridDialect.class );
+		Thread caller = Thread.currentThread();
+		Set<Object> names = new HashSet<>();
+		dialect.forEachTuple( supplier -> {
+			assertSame( "Consumer must be called by the calling thread", caller, Thread.currentThread() );
+			try ( ClosableIterator<Tuple> tuples = supplier.get( null ) ) {
+				while ( tuples.hasNext() ) {
+					names.add( tuples.next().get( "name" ) );
+				}
+			}
+		}, null, new DefaultEntityKeyMetadata( "Pizza", new String[]{ "bKey" } ) );
+		assertEquals( PIZZA_COUNT, names.size() );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ Customer.class, Pizza.class, Product.class, BuyingOrder.class,
+				ProductType.class, OrderItem.class };
+	}
+}
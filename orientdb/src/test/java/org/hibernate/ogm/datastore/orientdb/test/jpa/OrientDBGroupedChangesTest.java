@@ -0,0 +1,95 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.jpa;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.datastore.orientdb.impl.OrientDBDatastoreProvider;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.BuyingOrder;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.Customer;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.OrderItem;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.Pizza;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.Product;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.ProductType;
+import org.hibernate.ogm.datastore.orientdb.utils.NativeQueryUtil;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.utils.jpa.OgmJpaTestCase;
+import org.junit.Test;
+
+/**
+ * Test checks writes of an entity with its association by one script (grouped changes of the entity)
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class OrientDBGroupedChangesTest extends OgmJpaTestCase {
+
+	@Test
+	public void testChangesOfAssociationInOneFlush() {
+		EntityManager em = getFactory().createEntityManager();
+		em.getTransaction().begin();
+		Product cheese = product( em, "cheese" );
+		Product tomato = product( em, "tomato" );
+		Pizza pizza = new Pizza();
+		pizza.setName( "margherita" );
+		pizza.setProducts( new ArrayList<>() );
+		pizza.getProducts().add( cheese );
+		pizza.getProducts().add( tomato );
+		em.persist( pizza );
+		em.getTransaction().commit();
+		em.clear();
+
+		// stored row is kept, new row is added and removed row is deleted by one flush
+		em.getTransaction().begin();
+		pizza = em.find( Pizza.class, pizza.getbKey() );
+		pizza.getProducts().removeIf( product -> product.getId().equals( tomato.getId() ) );
+		pizza.getProducts().add( product( em, "basil" ) );
+		pizza.setName( "margherita with basil" );
+		em.getTransaction().commit();
+		em.clear();
+
+		em.getTransaction().begin();
+		pizza = em.find( Pizza.class, pizza.getbKey() );
+		Set<String> names = new HashSet<>();
+		for ( Product product : pizza.getProducts() ) {
+			names.add( product.getName() );
+		}
+		em.getTransaction().commit();
+		em.close();
+
+		assertEquals( "margherita with basil", pizza.getName() );
+		assertEquals( new HashSet<>( Arrays.asList( "cheese", "basil" ) ), names );
+		assertEquals( "Rows of association must not be duplicated", 2, countRows( "Pizza_Product" ) );
+	}
+
+	private static Product product(EntityManager em, String name) {
+		Product product = new Product();
+		product.setName( name );
+		em.persist( product );
+		return product;
+	}
+
+	private int countRows(String className) {
+		OrientDBDatastoreProvider provider = (OrientDBDatastoreProvider) getFactory().unwrap( SessionFactoryImplementor.class )
+				.getServiceRegistry().getService( DatastoreProvider.class );
+		return NativeQueryUtil.executeIdempotentQuery( provider.getNativeQuerySettings(), provider.getCurrentDatabase(), "SELECT FROM " + className )
+				.size();
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ Customer.class, Pizza.class, Product.class, BuyingOrder.class,
+				ProductType.class, OrderItem.class };
+	}
+}
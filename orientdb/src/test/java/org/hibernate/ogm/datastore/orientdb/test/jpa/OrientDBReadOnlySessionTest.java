@@ -0,0 +1,75 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.BuyingOrder;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.Customer;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.OrderItem;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.Pizza;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.Product;
+import org.hibernate.ogm.datastore.orientdb.test.jpa.entity.ProductType;
+import org.hibernate.ogm.utils.jpa.OgmJpaTestCase;
+import org.junit.Test;
+
+/**
+ * Test checks that writes of read-only session take part in the transaction
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class OrientDBReadOnlySessionTest extends OgmJpaTestCase {
+
+	@Test
+	public void testWritesOfReadOnlySession() {
+		EntityManager em = readOnlyEntityManager();
+		em.getTransaction().begin();
+		Pizza rolledBack = pizza( em, "rolled back" );
+		em.flush();
+		em.getTransaction().rollback();
+		em.close();
+
+		em = readOnlyEntityManager();
+		em.getTransaction().begin();
+		Pizza committed = pizza( em, "committed" );
+		em.getTransaction().commit();
+		em.close();
+
+		em = getFactory().createEntityManager();
+		em.getTransaction().begin();
+		assertNull( "Rollback must undo writes of read-only session", em.find( Pizza.class, rolledBack.getbKey() ) );
+		Pizza loaded = em.find( Pizza.class, committed.getbKey() );
+		assertNotNull( loaded );
+		assertEquals( "committed", loaded.getName() );
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	private EntityManager readOnlyEntityManager() {
+		EntityManager em = getFactory().createEntityManager();
+		em.unwrap( Session.class ).setDefaultReadOnly( true );
+		return em;
+	}
+
+	private static Pizza pizza(EntityManager em, String name) {
+		Pizza pizza = new Pizza();
+		pizza.setName( name );
+		em.persist( pizza );
+		return pizza;
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ Customer.class, Pizza.class, Product.class, BuyingOrder.class,
+				ProductType.class, OrderItem.class };
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.ogm.datastore.orientdb.metrics.InMemoryMetrics;
+import org.hibernate.ogm.datastore.orientdb.metrics.OperationMetrics;
+import org.hibernate.ogm.datastore.orientdb.metrics.OrientDBOperation;
+import org.junit.Test;
+
+/**
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class InMemoryMetricsTest {
+
+	@Test
+	public void testOperationsAreRecordedByClass() {
+		InMemoryMetrics metrics = new InMemoryMetrics();
+		for ( int i = 1; i <= 100; i++ ) {
+			metrics.record( OrientDBOperation.GET_TUPLE, "Account", TimeUnit.MICROSECONDS.toNanos( i * 10 ), 1, 50 );
+		}
+		metrics.record( OrientDBOperation.NATIVE_QUERY, null, TimeUnit.MILLISECONDS.toNanos( 5 ), 3, 0 );
+
+		OperationMetrics accountMetrics = metrics.getMetrics( OrientDBOperation.GET_TUPLE, "Account" );
+		assertEquals( 100, accountMetrics.getCount() );
+		assertEquals( 100, accountMetrics.getRows() );
+		assertEquals( 5000, accountMetrics.getBytes() );
+		assertEquals( TimeUnit.MICROSECONDS.toNanos( 1000 ), accountMetrics.getMaxNanos() );
+
+		// error of the histogram is less than 12.5%
+		long p50 = accountMetrics.getPercentileMicros( 50 );
+		assertTrue( "p50: " + p50, p50 > 500 * 0.875 && p50 <= 500 );
+		long p99 = accountMetrics.getPercentileMicros( 99 );
+		assertTrue( "p99: " + p99, p99 > 990 * 0.875 && p99 <= 990 );
+
+		assertEquals( Long.valueOf( 1 ), metrics.getCounts().get( "NATIVE_QUERY -" ) );
+		assertNull( metrics.getMetrics( OrientDBOperation.GET_TUPLE, "Customer" ) );
+
+		metrics.reset();
+		assertTrue( metrics.getCounts().isEmpty() );
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.query.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.engine.query.spi.ParamLocationRecognizer;
+import org.hibernate.ogm.datastore.orientdb.query.impl.OrientDBParameterMetadataBuilder;
+import org.hibernate.ogm.datastore.orientdb.query.impl.OrientDBQueryParameterScanner;
+import org.hibernate.query.internal.ParameterMetadataImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of parsing of parameters of native queries.
+ * <p>
+ * {@code scanQuery} is the cost of scanning of the query, {@code cacheMiss} is the cost of building of metadata
+ * without cache, {@code cachedMetadata} is the cost of repeated query. Run it by {@link #main(String[])}.
+ * </p>
+ * <p>
+ * No results are recorded: the benchmark has not been measured yet, so there are no before/after numbers for the
+ * cache of parameter metadata.
+ * </p>
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OrientDBParameterMetadataBuilderBenchmark {
+
+	private static final String QUERY = "select from Customer where name = :name and `status\\`` = 'it\\'s :not' and age > :age";
+
+	private OrientDBParameterMetadataBuilder builder;
+	private OrientDBParameterMetadataBuilder uncachedBuilder;
+
+	@Setup
+	public void setup() {
+		builder = new OrientDBParameterMetadataBuilder();
+		uncachedBuilder = new OrientDBParameterMetadataBuilder( 0 );
+	}
+
+	@Benchmark
+	public void scanQuery(Blackhole blackhole) {
+		ParamLocationRecognizer recognizer = new ParamLocationRecognizer();
+		OrientDBQueryParameterScanner.scan( QUERY, recognizer );
+		blackhole.consume( recognizer );
+	}
+
+	@Benchmark
+	public ParameterMetadataImpl cacheMiss() {
+		return uncachedBuilder.buildParameterMetadata( QUERY );
+	}
+
+	@Benchmark
+	public ParameterMetadataImpl cachedMetadata() {
+		return builder.buildParameterMetadata( QUERY );
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner( new OptionsBuilder()
+				.include( OrientDBParameterMetadataBuilderBenchmark.class.getSimpleName() )
+				.build() ).run();
+	}
+}
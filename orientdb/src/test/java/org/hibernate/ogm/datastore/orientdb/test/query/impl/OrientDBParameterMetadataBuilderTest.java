@@ -6,8 +6,10 @@
  */
 package org.hibernate.ogm.datastore.orientdb.test.query.impl;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Set;
@@ -53,4 +55,26 @@ public class OrientDBParameterMetadataBuilderTest {
 
 	}
 
+	@Test
+	public void testParameterMetadataIsCached() {
+		OrientDBParameterMetadataBuilder instance = new OrientDBParameterMetadataBuilder();
+		String nativeQuery = "select from Customer where name=:name";
+		assertSame( instance.buildParameterMetadata( nativeQuery ), instance.buildParameterMetadata( nativeQuery ) );
+		assertTrue( instance.buildParameterMetadata( "select from Customer where id=:id" ).getNamedParameterNames().contains( "id" ) );
+	}
+
+	@Test
+	public void testParametersInQuotesAndEscapedNamesAreIgnored() {
+		OrientDBParameterMetadataBuilder instance = new OrientDBParameterMetadataBuilder();
+		String nativeQuery = "select from Customer where `st\\`:atus` = 'it\\'s :not' and name = :name and age > :age1";
+		Set<String> parameters = instance.buildParameterMetadata( nativeQuery ).getNamedParameterNames();
+		assertEquals( 2, parameters.size() );
+		assertTrue( parameters.contains( "name" ) );
+		assertTrue( parameters.contains( "age1" ) );
+
+		nativeQuery = "select from Customer where name = 'O'Neil' and id = :id";
+		parameters = instance.buildParameterMetadata( nativeQuery ).getNamedParameterNames();
+		assertTrue( "Quote without pair is a usual char", parameters.contains( "id" ) );
+	}
+
 }
@@ -0,0 +1,88 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.ogm.datastore.orientdb.sequence.impl.SequenceBlock;
+import org.hibernate.ogm.datastore.orientdb.sequence.impl.SequenceBlockAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class SequenceBlockAllocatorTest {
+
+	private static final int BLOCK_SIZE = 10;
+	private static final int INCREMENT = 5;
+
+	private final AtomicLong sequenceValue = new AtomicLong();
+	private final AtomicInteger reservations = new AtomicInteger();
+	private ExecutorService executor;
+	private SequenceBlockAllocator allocator;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newSingleThreadExecutor();
+		allocator = new SequenceBlockAllocator( "TEST_SEQ", BLOCK_SIZE, size -> {
+			reservations.incrementAndGet();
+			long last = sequenceValue.addAndGet( (long) INCREMENT * size );
+			return new SequenceBlock( last - (long) INCREMENT * ( size - 1 ), INCREMENT, size );
+		}, executor );
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testValuesAreSameAsValuesOfSequence() {
+		for ( int i = 1; i <= BLOCK_SIZE * 2; i++ ) {
+			assertEquals( (long) i * INCREMENT, allocator.next() );
+		}
+	}
+
+	@Test
+	public void testConcurrentValuesAreUnique() throws Exception {
+		int threads = 8;
+		int valuesPerThread = 1000;
+		Set<Long> values = ConcurrentHashMap.newKeySet();
+		ExecutorService workers = Executors.newFixedThreadPool( threads );
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for ( int t = 0; t < threads; t++ ) {
+				futures.add( workers.submit( () -> {
+					for ( int i = 0; i < valuesPerThread; i++ ) {
+						assertTrue( values.add( allocator.next() ) );
+					}
+				} ) );
+			}
+			for ( Future<?> future : futures ) {
+				future.get();
+			}
+		}
+		finally {
+			workers.shutdownNow();
+		}
+		assertEquals( threads * valuesPerThread, values.size() );
+		assertTrue( reservations.get() < threads * valuesPerThread / BLOCK_SIZE + 2 );
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.hibernate.ogm.datastore.orientdb.schema.OrientDBDocumentSchemaDefiner;
+import org.hibernate.ogm.datastore.orientdb.sequence.impl.SequenceAllocators;
+import org.hibernate.ogm.datastore.orientdb.sequence.impl.SequenceBlock;
+import org.hibernate.ogm.datastore.orientdb.utils.SequenceUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+
+/**
+ * Test checks reservation of blocks of values of sequences of primary keys. Names of such sequences are in lower
+ * case.
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class SequenceBlockReservationTest {
+
+	private static final String DATABASE = "sequence_block_test";
+
+	private OrientDB orientDB;
+	private ODatabaseDocument db;
+
+	@Before
+	public void setUp() {
+		orientDB = new OrientDB( "embedded:", OrientDBConfig.defaultConfig() );
+		orientDB.create( DATABASE, ODatabaseType.MEMORY );
+		db = orientDB.open( DATABASE, "admin", "admin" );
+	}
+
+	@After
+	public void tearDown() {
+		db.close();
+		orientDB.drop( DATABASE );
+		orientDB.close();
+	}
+
+	@Test
+	public void testReserveBlocksOfPrimaryKeySequence() {
+		String seqName = OrientDBDocumentSchemaDefiner.generateSeqName( "Pizza", "bKey" );
+		SequenceUtil.defineSequence( db, seqName, 0, 0, null );
+
+		SequenceBlock first = SequenceUtil.reserveSequenceBlock( db, seqName, 5 );
+		assertEquals( 1, first.getFirst() );
+		SequenceBlock second = SequenceUtil.reserveSequenceBlock( db, seqName, 5 );
+		assertEquals( 6, second.getFirst() );
+	}
+
+	@Test
+	public void testCachedSequenceIsNotReservedByBlocks() {
+		String seqName = OrientDBDocumentSchemaDefiner.generateSeqName( "Product", "id" );
+		SequenceUtil.defineSequence( db, seqName, 0, 0, 10 );
+		SequenceAllocators allocators = new SequenceAllocators( 50, () -> orientDB.open( DATABASE, "admin", "admin" ) );
+		try {
+			for ( int i = 1; i <= 3; i++ ) {
+				assertEquals( i, allocators.getNextSequenceValue( seqName ) );
+			}
+		}
+		finally {
+			allocators.close();
+		}
+		db.activateOnCurrentThread();
+		try ( OResultSet resultSet = db.query( "SELECT value FROM OSequence WHERE name.toUpperCase() = ?", seqName.toUpperCase() ) ) {
+			long storedValue = ( (Number) resultSet.next().getProperty( "value" ) ).longValue();
+			assertTrue( "Values of cached sequence must be taken from its cache, not by blocks", storedValue < 50 );
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.ogm.datastore.orientdb.sequence.impl.SequenceBlock;
+import org.hibernate.ogm.datastore.orientdb.utils.SequenceUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.metadata.sequence.OSequence.SEQUENCE_TYPE;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+
+/**
+ * Test checks migration of sequences between {@code ORDERED} and {@code CACHED} types: values, that were handed out
+ * before the migration, must not be handed out again.
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class SequenceMigrationTest {
+
+	private static final String DATABASE = "sequence_migration_test";
+	private static final String SEQUENCE = "MIGRATED_SEQ";
+	private static final int CACHE_SIZE = 20;
+
+	private OrientDB orientDB;
+	private ODatabaseDocument db;
+	private final Set<Long> issuedValues = new HashSet<>();
+
+	@Before
+	public void setUp() {
+		orientDB = new OrientDB( "embedded:", OrientDBConfig.defaultConfig() );
+		orientDB.create( DATABASE, ODatabaseType.MEMORY );
+		db = orientDB.open( DATABASE, "admin", "admin" );
+	}
+
+	@After
+	public void tearDown() {
+		db.close();
+		orientDB.drop( DATABASE );
+		orientDB.close();
+	}
+
+	@Test
+	public void testMigrationFromOrderedToCached() {
+		assertEquals( SEQUENCE_TYPE.ORDERED, SequenceUtil.defineSequence( db, SEQUENCE, 1, 1, null ).getSequenceType() );
+		issueValues( 3 );
+		reserveBlock( 5 );
+
+		assertEquals( SEQUENCE_TYPE.CACHED, SequenceUtil.defineSequence( db, SEQUENCE, 1, 1, CACHE_SIZE ).getSequenceType() );
+		assertNewValuesAreNotIssued();
+	}
+
+	@Test
+	public void testMigrationFromCachedToOrdered() {
+		assertEquals( SEQUENCE_TYPE.CACHED, SequenceUtil.defineSequence( db, SEQUENCE, 1, 1, CACHE_SIZE ).getSequenceType() );
+		issueValues( 3 );
+		reserveBlock( 5 );
+		issueValues( 3 );
+
+		assertEquals( SEQUENCE_TYPE.ORDERED, SequenceUtil.defineSequence( db, SEQUENCE, 1, 1, null ).getSequenceType() );
+		assertNewValuesAreNotIssued();
+	}
+
+	@Test
+	public void testChangeOfCacheSize() {
+		SequenceUtil.defineSequence( db, SEQUENCE, 1, 1, CACHE_SIZE );
+		issueValues( 3 );
+		SequenceUtil.defineSequence( db, SEQUENCE, 1, 1, CACHE_SIZE * 2 );
+		try ( OResultSet resultSet = db.query( "SELECT cache FROM OSequence WHERE name.toUpperCase() = ?", SEQUENCE ) ) {
+			assertEquals( CACHE_SIZE * 2, ( (Number) resultSet.next().getProperty( "cache" ) ).intValue() );
+		}
+		assertNewValuesAreNotIssued();
+	}
+
+	private void issueValues(int count) {
+		for ( int i = 0; i < count; i++ ) {
+			assertTrue( issuedValues.add( SequenceUtil.getNextSequenceValue( db, SEQUENCE ) ) );
+		}
+	}
+
+	private void reserveBlock(int size) {
+		SequenceBlock block = SequenceUtil.reserveSequenceBlock( db, SEQUENCE, size );
+		for ( int i = 0; i < size; i++ ) {
+			assertTrue( issuedValues.add( block.getFirst() + i ) );
+		}
+	}
+
+	private void assertNewValuesAreNotIssued() {
+		long maxIssued = issuedValues.stream().mapToLong( Long::longValue ).max().getAsLong();
+		for ( int i = 0; i < CACHE_SIZE * 3; i++ ) {
+			long value = SequenceUtil.getNextSequenceValue( db, SEQUENCE );
+			assertTrue( "Value " + value + " was handed out before migration", value > maxIssued );
+			assertTrue( issuedValues.add( value ) );
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.sequence;
+
+import static org.junit.Assert.assertEquals;
+
+import org.hibernate.ogm.datastore.orientdb.sequence.impl.SequenceAllocators;
+import org.hibernate.ogm.datastore.orientdb.utils.SequenceUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+
+/**
+ * Values of table generators must be the same as values of the removed Groovy function: the first value is the
+ * initial value, each next value adds the increment.
+ *
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class TableGeneratorValuesTest {
+
+	private static final String DATABASE = "table_generator_test";
+	private static final String TABLE = "hibernate_sequences";
+	private static final String PK_COLUMN = "sequence_name";
+	private static final String VALUE_COLUMN = "next_val";
+	private static final int INIT_VALUE = 5;
+	private static final int INCREMENT = 3;
+
+	private OrientDB orientDB;
+
+	@Before
+	public void setUp() {
+		orientDB = new OrientDB( "embedded:", OrientDBConfig.defaultConfig() );
+		orientDB.create( DATABASE, ODatabaseType.MEMORY );
+		try ( ODatabaseDocument db = open() ) {
+			OClass table = db.getMetadata().getSchema().createClass( TABLE );
+			table.createProperty( PK_COLUMN, OType.STRING );
+			table.createProperty( VALUE_COLUMN, OType.LONG );
+			table.createIndex( TABLE + "_index", OClass.INDEX_TYPE.UNIQUE, PK_COLUMN );
+		}
+	}
+
+	@After
+	public void tearDown() {
+		orientDB.drop( DATABASE );
+		orientDB.close();
+	}
+
+	@Test
+	public void testValuesOfTableGenerator() {
+		try ( ODatabaseDocument db = open() ) {
+			for ( int i = 0; i < 4; i++ ) {
+				assertEquals( INIT_VALUE + (long) INCREMENT * i,
+						SequenceUtil.getNextTableValue( db, TABLE, PK_COLUMN, "seq", VALUE_COLUMN, INIT_VALUE, INCREMENT ) );
+			}
+		}
+	}
+
+	@Test
+	public void testValuesWithoutBlocksDoNotDependOnTransaction() {
+		SequenceAllocators allocators = new SequenceAllocators( 1, this::open );
+		try ( ODatabaseDocument db = open() ) {
+			db.begin();
+			assertEquals( INIT_VALUE, next( allocators ) );
+			assertEquals( INIT_VALUE + INCREMENT, next( allocators ) );
+			db.activateOnCurrentThread();
+			db.rollback();
+			// values are reserved by own connection, so rollback does not return them
+			assertEquals( INIT_VALUE + 2 * INCREMENT, next( allocators ) );
+		}
+		finally {
+			allocators.close();
+		}
+	}
+
+	@Test
+	public void testValuesOfBlocks() {
+		SequenceAllocators allocators = new SequenceAllocators( 4, this::open );
+		try {
+			for ( int i = 0; i < 10; i++ ) {
+				assertEquals( INIT_VALUE + (long) INCREMENT * i, next( allocators ) );
+			}
+		}
+		finally {
+			allocators.close();
+		}
+	}
+
+	private long next(SequenceAllocators allocators) {
+		return allocators.getNextTableValue( TABLE, PK_COLUMN, "seq", VALUE_COLUMN, INIT_VALUE, INCREMENT );
+	}
+
+	private ODatabaseDocument open() {
+		return orientDB.open( DATABASE, "admin", "admin" );
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.transaction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.hibernate.HibernateException;
+import org.hibernate.ogm.datastore.orientdb.transaction.impl.ConflictRetryPolicy;
+import org.junit.Test;
+
+/**
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class ConflictRetryPolicyTest {
+
+	@Test
+	public void testBackoffIsLimited() {
+		ConflictRetryPolicy policy = new ConflictRetryPolicy( 5, 10, 100 );
+		for ( int i = 0; i < 1000; i++ ) {
+			assertTrue( policy.backoff( 1 ) <= 10 );
+			assertTrue( policy.backoff( 3 ) <= 40 );
+			assertTrue( policy.backoff( 40 ) <= 100 );
+			assertTrue( policy.backoff( 40 ) >= 0 );
+		}
+	}
+
+	@Test
+	public void testRetryIsDisabledByDefault() {
+		ConflictRetryPolicy policy = new ConflictRetryPolicy( 0, 0, 0 );
+		assertEquals( 1, policy.getMaxAttempts() );
+		assertEquals( 0, policy.backoff( 1 ) );
+		assertFalse( policy.isConflict( new HibernateException( "error", new IllegalStateException() ) ) );
+	}
+}
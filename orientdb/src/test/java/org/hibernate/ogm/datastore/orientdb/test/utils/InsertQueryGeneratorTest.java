@@ -7,19 +7,23 @@
 package org.hibernate.ogm.datastore.orientdb.test.utils;
 
 import java.util.Collections;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.math.BigInteger;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.codec.binary.Base64;
+import org.hibernate.ogm.datastore.orientdb.dto.GenerationResult;
 import org.hibernate.ogm.datastore.orientdb.utils.InsertQueryGenerator;
 
-import org.json.simple.JSONObject;
 import org.junit.Test;
 
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
 /**
  * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
  */
@@ -27,35 +31,34 @@ import org.junit.Test;
 public class InsertQueryGeneratorTest extends InsertQueryGenerator {
 
 	/**
-	 * Test of createJSON method, of class InsertQueryGenerator.
+	 * Test of createDocument method, of class InsertQueryGenerator.
 	 */
 	@Test
-	public void testCreateJSON() throws Exception {
-		System.out.println( "createJSON" );
-		JSONObject result = null;
+	public void testCreateDocument() throws Exception {
+		ODocument result = null;
 		Map<String, Object> valuesMap = new LinkedHashMap<>();
 		valuesMap.put( "field1", 1l );
 
 		final Set<String> emptySet = Collections.<String>emptySet();
-		result = createJSON( true, emptySet, valuesMap );
-		assertEquals( result.get( "field1" ), 1l );
+		result = createDocument( true, emptySet, valuesMap );
+		assertEquals( 1l, (long) result.field( "field1" ) );
 
 		valuesMap.put( "field2", new byte[]{ 1, 2, 3 } );
-		result = createJSON( true, emptySet, valuesMap );
-		assertEquals( result.get( "field2" ), new String( Base64.encodeBase64( new byte[]{ 1, 2, 3 } ) ) );
+		valuesMap.put( "field6", BigInteger.TEN );
+		result = createDocument( true, emptySet, valuesMap );
+		assertArrayEquals( new byte[]{ 1, 2, 3 }, (byte[]) result.field( "field2" ) );
+		assertEquals( new String( Base64.encodeBase64( BigInteger.TEN.toByteArray() ) ), result.field( "field6" ) );
 
 		// using embedded fields
 		valuesMap.put( "field3.embeddedField1", "f1" );
 		valuesMap.put( "field3.embeddedField2", "f2" );
-		result = createJSON( true, emptySet, valuesMap );
-		assertTrue( "Field 'field3' must exists!", result.containsKey( "field3" ) );
-		assertEquals( result.get( "field3" ).getClass(), JSONObject.class );
-		JSONObject embeddedFiled = (JSONObject) result.get( "field3" );
-		assertTrue( "JSON must have key '@type'", embeddedFiled.containsKey( "@type" ) );
-		assertTrue( "JSON must have key '@class'", embeddedFiled.containsKey( "@class" ) );
-		assertEquals( "field3", embeddedFiled.get( "@class" ) );
-		assertEquals( "f1", embeddedFiled.get( "embeddedField1" ) );
-		assertEquals( "f2", embeddedFiled.get( "embeddedField2" ) );
+		result = createDocument( true, emptySet, valuesMap );
+		assertTrue( "Field 'field3' must exists!", result.containsField( "field3" ) );
+		assertEquals( ODocument.class, result.field( "field3" ).getClass() );
+		ODocument embeddedFiled = result.field( "field3" );
+		assertEquals( "field3", embeddedFiled.getClassName() );
+		assertEquals( "f1", embeddedFiled.field( "embeddedField1" ) );
+		assertEquals( "f2", embeddedFiled.field( "embeddedField2" ) );
 
 		valuesMap.put( "field4.ef1l1.ef1l2", "f11" );
 		valuesMap.put( "field4.ef1l1.ef2l2", "f12" );
@@ -64,18 +67,33 @@ public class InsertQueryGeneratorTest extends InsertQueryGenerator {
 		valuesMap.put( "field4.ef2l1.ef1l2", "f21" );
 		valuesMap.put( "field4.ef2l1.ef2l2", "f22" );
 		valuesMap.put( "field5", "http://www.hibernate.org/" );
-		result = createJSON( true, emptySet, valuesMap );
-		assertTrue( "Field 'field4' must exists!", result.containsKey( "field4" ) );
-		embeddedFiled = (JSONObject) result.get( "field4" );
-		assertTrue( "JSON must have key 'ef1l1'", embeddedFiled.containsKey( "ef1l1" ) );
-		assertTrue( "JSON must have key 'ef2l1'", embeddedFiled.containsKey( "ef2l1" ) );
-		embeddedFiled = (JSONObject) ( (JSONObject) result.get( "field4" ) ).get( "ef1l1" );
-		assertTrue( "JSON must have key 'ef1l1.ef1l2'", embeddedFiled.containsKey( "ef1l2" ) );
-		assertEquals( "f11", embeddedFiled.get( "ef1l2" ) );
-
-		System.out.println( "toString:" + result.toString() );
-		System.out.println( "toJSONString:" + result.toJSONString() );
+		result = createDocument( true, emptySet, valuesMap );
+		assertTrue( "Field 'field4' must exists!", result.containsField( "field4" ) );
+		embeddedFiled = result.field( "field4" );
+		assertTrue( "Document must have field 'ef1l1'", embeddedFiled.containsField( "ef1l1" ) );
+		assertTrue( "Document must have field 'ef2l1'", embeddedFiled.containsField( "ef2l1" ) );
+		embeddedFiled = embeddedFiled.field( "ef1l1" );
+		assertTrue( "Document must have field 'ef1l1.ef1l2'", embeddedFiled.containsField( "ef1l2" ) );
+		assertEquals( "f11", embeddedFiled.field( "ef1l2" ) );
+	}
+
+	/**
+	 * Test of generate method, of class InsertQueryGenerator.
+	 */
+	@Test
+	public void testGenerate() throws Exception {
+		Map<String, Object> valuesMap = new LinkedHashMap<>();
+		valuesMap.put( "id", 1l );
+		valuesMap.put( "name", "O'Neil" );
+		GenerationResult result = generate( "Customer", valuesMap, true, Collections.singleton( "id" ) );
+		assertEquals( "insert into Customer content ?", result.getExecutionQuery() );
+		assertEquals( 1, result.getPreparedStatementParams().size() );
+		ODocument content = (ODocument) result.getPreparedStatementParams().get( 0 );
+		assertEquals( "O'Neil", content.field( "name" ) );
 
+		valuesMap.put( "name", "Smith" );
+		assertEquals( "Query must not depend on values", result.getExecutionQuery(),
+				generate( "Customer", valuesMap, true, Collections.singleton( "id" ) ).getExecutionQuery() );
 	}
 
 }
@@ -0,0 +1,115 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.ogm.datastore.orientdb.dto.GenerationResult;
+import org.hibernate.ogm.datastore.orientdb.metrics.impl.DisabledMetrics;
+import org.hibernate.ogm.datastore.orientdb.utils.NativeQuerySettings;
+import org.hibernate.ogm.datastore.orientdb.utils.NativeQueryUtil;
+import org.junit.Test;
+
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+
+/**
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class NativeQueryUtilTest {
+
+	@Test
+	public void testDescribeNamedParameters() {
+		Map<String, Object> params = new LinkedHashMap<>();
+		params.put( "name", "secret" );
+		params.put( "id", 15L );
+		params.put( "author", null );
+		assertEquals( "{name: String, id: Long, author: null}", NativeQueryUtil.describeParameters( params ) );
+	}
+
+	@Test
+	public void testDescribePositionalParameters() {
+		assertEquals( "[String, Integer]", NativeQueryUtil.describeParameters( new Object[]{ "secret", 7 } ) );
+		assertEquals( "[]", NativeQueryUtil.describeParameters( new Object[0] ) );
+	}
+
+	@Test
+	public void testNumberingOfParametersOfScript() {
+		List<GenerationResult> queries = Arrays.asList(
+				new GenerationResult( "INSERT INTO Poem SET name = ?, author = ?", Arrays.<Object>asList( "Thanatopsis", "Bryant" ) ),
+				new GenerationResult( "DELETE FROM Poem WHERE name = 'what?'" ),
+				new GenerationResult( "UPDATE Poem SET author = ? WHERE name = ?", Arrays.<Object>asList( "Poe", "Raven" ) ) );
+		Map<String, Object> params = new HashMap<>();
+		String script = NativeQueryUtil.buildScript( queries, false, params );
+		assertEquals( "INSERT INTO Poem SET name = :p0, author = :p1;\n"
+				+ "DELETE FROM Poem WHERE name = 'what?';\n"
+				+ "UPDATE Poem SET author = :p2 WHERE name = :p3;\n", script );
+		assertEquals( 4, params.size() );
+		assertEquals( "Thanatopsis", params.get( "p0" ) );
+		assertEquals( "Bryant", params.get( "p1" ) );
+		assertEquals( "Poe", params.get( "p2" ) );
+		assertEquals( "Raven", params.get( "p3" ) );
+	}
+
+	@Test
+	public void testWrappingOfScriptIntoTransaction() {
+		List<GenerationResult> queries = Collections.singletonList( new GenerationResult( "DELETE FROM Poem" ) );
+		assertEquals( "BEGIN;\nDELETE FROM Poem;\nCOMMIT;\n", NativeQueryUtil.buildScript( queries, true, new HashMap<>() ) );
+		assertEquals( "DELETE FROM Poem;\n", NativeQueryUtil.buildScript( queries, false, new HashMap<>() ) );
+	}
+
+	@Test
+	public void testExecuteScriptWithAndWithoutActiveTransaction() {
+		OrientDB orientDB = new OrientDB( "embedded:", OrientDBConfig.defaultConfig() );
+		orientDB.create( "native_query_test", ODatabaseType.MEMORY );
+		try ( ODatabaseDocument db = orientDB.open( "native_query_test", "admin", "admin" ) ) {
+			db.getMetadata().getSchema().createClass( "Poem" );
+
+			// without transaction the script is committed by itself
+			NativeQueryUtil.executeScript( NativeQuerySettings.DISABLED, db, Arrays.asList(
+					new GenerationResult( "INSERT INTO Poem SET name = ?", Arrays.<Object>asList( "first" ) ),
+					new GenerationResult( "INSERT INTO Poem SET name = ?", Arrays.<Object>asList( "second" ) ) ) );
+			assertFalse( db.getTransaction().isActive() );
+			assertEquals( 2, db.countClass( "Poem" ) );
+
+			// with active transaction the script takes part in it and is undone by rollback
+			db.begin();
+			NativeQueryUtil.executeScript( NativeQuerySettings.DISABLED, db, Arrays.asList(
+					new GenerationResult( "INSERT INTO Poem SET name = ?", Arrays.<Object>asList( "third" ) ) ) );
+			assertTrue( "Script must not complete the active transaction", db.getTransaction().isActive() );
+			db.rollback();
+			assertEquals( 2, db.countClass( "Poem" ) );
+		}
+		finally {
+			orientDB.drop( "native_query_test" );
+			orientDB.close();
+		}
+	}
+
+	@Test
+	public void testSettingsOfSlowQueryLog() {
+		NativeQuerySettings settings = new NativeQuerySettings( DisabledMetrics.INSTANCE, 100, false );
+		assertTrue( settings.isMeasured() );
+		assertFalse( settings.isSlow( TimeUnit.MILLISECONDS.toNanos( 99 ) ) );
+		assertTrue( settings.isSlow( TimeUnit.MILLISECONDS.toNanos( 100 ) ) );
+
+		assertFalse( NativeQuerySettings.DISABLED.isMeasured() );
+		assertFalse( NativeQuerySettings.DISABLED.isSlow( Long.MAX_VALUE ) );
+	}
+}
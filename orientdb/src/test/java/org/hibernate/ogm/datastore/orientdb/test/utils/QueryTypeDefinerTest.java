@@ -0,0 +1,42 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.function.BooleanSupplier;
+
+import org.hibernate.ogm.datastore.orientdb.utils.QueryTypeDefiner;
+import org.hibernate.ogm.datastore.orientdb.utils.QueryTypeDefiner.QueryType;
+import org.hibernate.ogm.model.spi.Tuple.SnapshotType;
+import org.junit.Test;
+
+/**
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class QueryTypeDefinerTest {
+
+	private static final BooleanSupplier NO_PROBE = () -> {
+		fail( "Database must not be asked if state of snapshot is known" );
+		return false;
+	};
+
+	@Test
+	public void testDefineByStateOfSnapshot() {
+		assertEquals( QueryType.INSERT, QueryTypeDefiner.define( SnapshotType.INSERT, false, NO_PROBE ) );
+		assertEquals( QueryType.UPDATE, QueryTypeDefiner.define( SnapshotType.UPDATE, false, NO_PROBE ) );
+		assertEquals( QueryType.UPDATE, QueryTypeDefiner.define( SnapshotType.INSERT, true, NO_PROBE ) );
+		assertEquals( QueryType.UPDATE, QueryTypeDefiner.define( SnapshotType.UNKNOWN, true, NO_PROBE ) );
+	}
+
+	@Test
+	public void testDefineByDatabase() {
+		assertEquals( QueryType.UPDATE, QueryTypeDefiner.define( SnapshotType.UNKNOWN, false, () -> true ) );
+		assertEquals( QueryType.INSERT, QueryTypeDefiner.define( SnapshotType.UNKNOWN, false, () -> false ) );
+	}
+}
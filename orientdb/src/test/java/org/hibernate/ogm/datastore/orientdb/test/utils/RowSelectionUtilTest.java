@@ -0,0 +1,79 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.orientdb.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.ogm.datastore.orientdb.utils.RowSelectionUtil;
+import org.junit.Test;
+
+/**
+ * @author Sergey Chernolyas &lt;sergey.chernolyas@gmail.com&gt;
+ */
+public class RowSelectionUtilTest {
+
+	@Test
+	public void testWithoutRowSelection() {
+		Map<String, Object> params = new HashMap<>();
+		String query = "select from Poem";
+		assertEquals( query, RowSelectionUtil.applyRowSelection( query, null, null, params ) );
+		assertEquals( query, RowSelectionUtil.applyRowSelection( query, 0, null, params ) );
+		assertTrue( params.isEmpty() );
+	}
+
+	@Test
+	public void testAppendSkipAndLimit() {
+		Map<String, Object> params = new HashMap<>();
+		String query = RowSelectionUtil.applyRowSelection( "select from Poem where name = 'limit' order by name;", 20, 10, params );
+		assertEquals( "select from Poem where name = 'limit' order by name SKIP :ogmRowSelectionSkip LIMIT :ogmRowSelectionLimit", query );
+		assertEquals( 20, params.get( RowSelectionUtil.SKIP_PARAMETER ) );
+		assertEquals( 10, params.get( RowSelectionUtil.LIMIT_PARAMETER ) );
+	}
+
+	@Test
+	public void testWrapQueryWithOwnLimit() {
+		Map<String, Object> params = new HashMap<>();
+		String query = RowSelectionUtil.applyRowSelection( "select from Poem LIMIT 100", null, 10, params );
+		assertEquals( "SELECT FROM (select from Poem LIMIT 100) LIMIT :ogmRowSelectionLimit", query );
+		assertEquals( 1, params.size() );
+	}
+
+	@Test
+	public void testWrapQueryWithTrailingClauses() {
+		Map<String, Object> params = new HashMap<>();
+		assertEquals( "SELECT FROM (select from Poem FETCHPLAN *:-1) SKIP :ogmRowSelectionSkip",
+				RowSelectionUtil.applyRowSelection( "select from Poem FETCHPLAN *:-1", 5, null, params ) );
+		assertEquals( "SELECT FROM (select from Poem TIMEOUT 1000 RETURN) LIMIT :ogmRowSelectionLimit",
+				RowSelectionUtil.applyRowSelection( "select from Poem TIMEOUT 1000 RETURN", null, 10, params ) );
+		assertEquals( "SELECT FROM (select from Poem lock record) LIMIT :ogmRowSelectionLimit",
+				RowSelectionUtil.applyRowSelection( "select from Poem lock record", null, 10, params ) );
+		assertEquals( "SELECT FROM (select from Poem PARALLEL) LIMIT :ogmRowSelectionLimit",
+				RowSelectionUtil.applyRowSelection( "select from Poem PARALLEL", null, 10, params ) );
+		assertEquals( "SELECT FROM (select from Poem NOCACHE) LIMIT :ogmRowSelectionLimit",
+				RowSelectionUtil.applyRowSelection( "select from Poem NOCACHE", null, 10, params ) );
+	}
+
+	@Test
+	public void testWrapQueryNotStartingWithSelectOrMatch() {
+		Map<String, Object> params = new HashMap<>();
+		assertEquals( "SELECT FROM (traverse out() from #12:0) LIMIT :ogmRowSelectionLimit",
+				RowSelectionUtil.applyRowSelection( "traverse out() from #12:0", null, 10, params ) );
+		assertEquals( "match {class: Poem, as: p} return p SKIP :ogmRowSelectionSkip",
+				RowSelectionUtil.applyRowSelection( "match {class: Poem, as: p} return p", 5, null, params ) );
+	}
+
+	@Test
+	public void testKeywordsInLiteralsAreIgnored() {
+		Map<String, Object> params = new HashMap<>();
+		assertEquals( "select from Poem where name = 'nocache' LIMIT :ogmRowSelectionLimit",
+				RowSelectionUtil.applyRowSelection( "select from Poem where name = 'nocache'", null, 10, params ) );
+	}
+}
@@ -68,7 +68,7 @@ public class UpdateQueryGeneratorTest {
 			public boolean matches(Object o) {
 				System.out.println( " o: " + o );
 				String query = (String) o;
-				return query.contains( "AQID" ) && query.contains( "field3.subfield2" );
+				return !query.contains( "AQID" ) && query.contains( "field3.subfield2 = ?" ) && query.endsWith( "where id = ?" );
 			}
 
 			@Override
@@ -78,9 +78,17 @@ public class UpdateQueryGeneratorTest {
 
 			@Override
 			public void describeTo(Description d) {
-				d.appendText( "containt binary data" );
+				d.appendText( "containt parameter for binary data" );
 			}
 		} );
+		Assert.assertEquals( valuesMap.size() + 1, result.getPreparedStatementParams().size() );
+		Assert.assertTrue( result.getPreparedStatementParams().contains( "field2" ) );
+		Assert.assertEquals( 1, result.getPreparedStatementParams().get( valuesMap.size() ) );
+
+		valuesMap.put( "field2", "it's quoted" );
+		GenerationResult quotedResult = instance.generate( tableName, valuesMap, primaryKey );
+		Assert.assertEquals( "Query must not depend on values", result.getExecutionQuery(), quotedResult.getExecutionQuery() );
+		Assert.assertTrue( quotedResult.getPreparedStatementParams().contains( "it's quoted" ) );
 
 	}
 
@@ -86,7 +86,7 @@ public class OrientDBTestHelper implements GridDialectTestHelper {
 		OSchema schema = db.getMetadata().getSchema();
 		for ( OClass schemaClass : schema.getClasses() ) {
 			if ( !isSystemClass( schemaClass ) && !isAssociationClass( schemaClass ) ) {
-				List<ODocument> docs = NativeQueryUtil.executeIdempotentQuery( db, "select from " + schemaClass.getName() );
+				List<ODocument> docs = NativeQueryUtil.executeIdempotentQuery( NativeQuerySettings.DISABLED, db, "select from " + schemaClass.getName() );
 				log.debugf( "found %d entities in class %s ", docs.size(), schemaClass.getName() );
 				result += docs.size();
 			}
@@ -108,7 +108,7 @@ public class OrientDBTestHelper implements GridDialectTestHelper {
 		OSchema schema = db.getMetadata().getSchema();
 		for ( OClass schemaClass : schema.getClasses() ) {
 			if ( !isSystemClass( schemaClass ) && isAssociationClass( schemaClass ) ) {
-				List<ODocument> docs = NativeQueryUtil.executeIdempotentQuery( db, "select from " + schemaClass.getName() );
+				List<ODocument> docs = NativeQueryUtil.executeIdempotentQuery( NativeQuerySettings.DISABLED, db, "select from " + schemaClass.getName() );
 				log.debugf( "found %d associations in class %s ", docs.size(), schemaClass.getName() );
 				result += docs.size();
 			}
@@ -144,11 +144,11 @@ public class OrientDBTestHelper implements GridDialectTestHelper {
 		ConfigurationPropertyReader propertyReader = provider.getPropertyReader();
 		ODatabaseDocument db = provider.getCurrentDatabase();
 		log.infof( "call prepareDatabase! db closed: %s ", db.isClosed() );
-		NativeQueryUtil.executeNonIdempotentQuery( db, "ALTER DATABASE TIMEZONE \"GMT\"" );
-		NativeQueryUtil.executeNonIdempotentQuery( db, "ALTER DATABASE DATEFORMAT '"
+		NativeQueryUtil.executeNonIdempotentQuery( NativeQuerySettings.DISABLED, db, "ALTER DATABASE TIMEZONE \"GMT\"" );
+		NativeQueryUtil.executeNonIdempotentQuery( NativeQuerySettings.DISABLED, db, "ALTER DATABASE DATEFORMAT '"
 				.concat( PropertyReaderUtil.readDateFormatProperty( propertyReader ) )
 				.concat( "'" ) );
-		NativeQueryUtil.executeNonIdempotentQuery( db, "ALTER DATABASE DATETIMEFORMAT '"
+		NativeQueryUtil.executeNonIdempotentQuery( NativeQuerySettings.DISABLED, db, "ALTER DATABASE DATETIMEFORMAT '"
 				.concat( PropertyReaderUtil.readDateTimeFormatProperty( propertyReader ) )
 				.concat( "'" ) );
 